@@ -12,6 +12,7 @@ import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
 import com.velocitypowered.api.event.proxy.ProxyShutdownEvent;
 import com.velocitypowered.api.plugin.Plugin;
+import com.velocitypowered.api.plugin.annotation.DataDirectory;
 import com.velocitypowered.api.proxy.ProxyServer;
 import org.slf4j.Logger;
 
@@ -22,8 +23,13 @@ import org.slf4j.Logger;
 )
 public class Java_plugin {
 
+    private static final String METRICS_SNAPSHOT_FILE = "metrics-snapshot.bin";
+    private static final String QUEUE_SNAPSHOT_FILE = "queue-snapshot.bin";
+    private static final String QUEUE_JOURNAL_FILE = "queue-journal.bin";
+
     private final ProxyServer server;
     private final Logger logger;
+    private final Path dataDirectory;
 
     private MongoClient mongoClient;
 
@@ -35,10 +41,14 @@ public class Java_plugin {
     private MetricsService metricsService;
     private ServerManagementService serverManagementService;
     private LogsService logsService;
+    private PrometheusService prometheusService;
+    private LoadBalancerService loadBalancerService;
+    private QueueAdmissionService queueAdmissionService;
     @Inject
-    public Java_plugin(ProxyServer server, Logger logger) {
+    public Java_plugin(ProxyServer server, Logger logger, @DataDirectory Path dataDirectory) {
         this.server = server;
         this.logger = logger;
+        this.dataDirectory = dataDirectory;
     }
 
     @Subscribe
@@ -55,23 +65,39 @@ public class Java_plugin {
         broadcastService = new BroadcastService(server, logger);
         metricsService = new MetricsService(logger);
         serverManagementService = new ServerManagementService(server, mongoClient, logger);
+        prometheusService = new PrometheusService(metricsService, serverListService, queueListService, logger);
+        loadBalancerService = new LoadBalancerService(server, serverListService, metricsService, logger);
+        queueAdmissionService = new QueueAdmissionService(server, queueListService, serverListService, loadBalancerService, logger);
 
         transferService.setLogsService(logsService);
         queueListService.setLogsService(logsService);
         serverListService.setLogsService(logsService);
         serverListService.setServerManagementService(serverManagementService);
+        serverListService.setMetricsService(metricsService);
         broadcastService.setLogsService(logsService);
         metricsService.setLogsService(logsService);
         serverManagementService.setLogsService(logsService);
+        loadBalancerService.setLogsService(logsService);
+        queueAdmissionService.setLogsService(logsService);
+        prometheusService.setQueueAdmissionService(queueAdmissionService);
+
+        metricsService.loadSnapshot(dataDirectory.resolve(METRICS_SNAPSHOT_FILE));
+        queueListService.enablePersistence(dataDirectory.resolve(QUEUE_SNAPSHOT_FILE),
+                dataDirectory.resolve(QUEUE_JOURNAL_FILE));
 
         server.getEventManager().register(this, logsService);
         server.getEventManager().register(this, queueListService);
+        server.getEventManager().register(this, loadBalancerService);
 
         logger.info("Loading servers from MongoDB...");
         serverManagementService.loadServersOnStartup();
         logger.info("Server loading completed.");
 
-        logger.info("=== Event listeners registered for LogsService and QueueListService ===");
+        serverListService.startBackgroundRefresh();
+        queueListService.start();
+        queueAdmissionService.start();
+
+        logger.info("=== Event listeners registered for LogsService, QueueListService and LoadBalancerService ===");
 
         restServer = new RestServer(
                 transferService,
@@ -81,6 +107,9 @@ public class Java_plugin {
                 metricsService,
                 logsService,
                 serverManagementService,
+                prometheusService,
+                loadBalancerService,
+                queueAdmissionService,
                 logger
         );
 
@@ -97,6 +126,8 @@ public class Java_plugin {
         logger.info("🖥️  SERVER MANAGEMENT:");
         logger.info("  GET  /server/list - Server list with status & player info");
         logger.info("  GET  /server/overview - Dashboard overview with summaries");
+        logger.info("  GET  /server/events - SSE stream of server status transitions");
+        logger.info("  GET  /server/select - Pick the best backend (least-loaded, power-of-two, weighted)");
         logger.info("  GET  /server/{name} - Detailed info for specific server");
         logger.info("  POST /server/add - Add new server to cluster");
         logger.info("  POST /server/remove - Remove server from cluster");
@@ -107,12 +138,19 @@ public class Java_plugin {
         logger.info("📊 METRICS & MONITORING:");
         logger.info("  GET  /metrics/{serverIp} - Real-time server metrics");
         logger.info("  POST /metrics/{serverIp} - Upload server metrics");
+        logger.info("  GET  /metrics/prometheus - Prometheus text exposition");
+        logger.info("  GET  /metrics/liveness - Push-cadence staleness per backend");
+        logger.info("  GET  /metrics/ingest/stats - Metrics ingest queue depth & rejections");
         logger.info("");
         logger.info("🔄 PLAYER OPERATIONS:");
         logger.info("  POST /transfer - Transfer players between servers");
         logger.info("  GET  /queue/list - Get queued player list (UUID/username)");
         logger.info("  GET  /queue/count - Get current queue count");
+        logger.info("  GET  /queue/{name}/list - Get a named queue's player list");
+        logger.info("  GET  /queue/{name}/count - Get a named queue's count");
         logger.info("  POST /queue/remove - Remove player from queue");
+        logger.info("  GET  /queue/admission - Automatic queue admission stats");
+        logger.info("  POST /queue/admission - Set admission rate (players/sec) or pause admission");
         logger.info("");
         logger.info("📢 BROADCASTING:");
         logger.info("  POST /broadcast - Send messages to all players");
@@ -138,8 +176,9 @@ public class Java_plugin {
         logger.info("  • Metrics Cache: 3s TTL");
         logger.info("  • Rate Limiting: 1s minimum interval");
         logger.info("  • Ping Timeout: 3s maximum");
-        logger.info("  • Server Ping Pool: 8 threads");
+        logger.info("  • Server Pings: 256 concurrent (async limiter)");
         logger.info("  • Management Pool: 4 threads");
+        logger.info("  • Metrics Ingest Pool: up to 4 threads, 256 queued");
         logger.info("=====================================");
         
         logger.info("");
@@ -170,7 +209,13 @@ public class Java_plugin {
             logger.debug("Transfer service cleanup completed");
         }
 
+        if (queueAdmissionService != null) {
+            queueAdmissionService.shutdown();
+            logger.debug("Queue admission cleanup completed");
+        }
+
         if (queueListService != null) {
+            queueListService.shutdown();
             logger.debug("Queue service cleanup completed");
         }
 
@@ -181,6 +226,8 @@ public class Java_plugin {
         }
 
         if (metricsService != null) {
+            metricsService.saveSnapshot(dataDirectory.resolve(METRICS_SNAPSHOT_FILE));
+            metricsService.shutdown();
             logger.debug("Metrics service cleanup completed");
         }
 
@@ -254,6 +301,18 @@ public class Java_plugin {
         return serverManagementService;
     }
 
+    public PrometheusService getPrometheusService() {
+        return prometheusService;
+    }
+
+    public LoadBalancerService getLoadBalancerService() {
+        return loadBalancerService;
+    }
+
+    public QueueAdmissionService getQueueAdmissionService() {
+        return queueAdmissionService;
+    }
+
     public RestServer getRestServer() {
         return restServer;
     }
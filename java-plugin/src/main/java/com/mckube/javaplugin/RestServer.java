@@ -8,6 +8,9 @@ import com.mckube.javaplugin.services.ServerManagementService;
 import com.mckube.javaplugin.services.TransferService;
 import com.mckube.javaplugin.services.MetricsService;
 import com.mckube.javaplugin.services.LogsService;
+import com.mckube.javaplugin.services.PrometheusService;
+import com.mckube.javaplugin.services.LoadBalancerService;
+import com.mckube.javaplugin.services.QueueAdmissionService;
 import io.javalin.Javalin;
 import org.slf4j.Logger;
 
@@ -22,6 +25,9 @@ public class RestServer {
     private final LogsController logsController;
     private final ServerManagementController serverManagementController;
     private final PerformanceController performanceController;
+    private final PrometheusController prometheusController;
+    private final LoadBalancerController loadBalancerController;
+    private final QueueAdmissionController queueAdmissionController;
     private final Logger logger;
     private Javalin app;
 
@@ -30,6 +36,9 @@ public class RestServer {
             MetricsService metricsService,
             LogsService logsService,
             ServerManagementService serverManagementService,
+            PrometheusService prometheusService,
+            LoadBalancerService loadBalancerService,
+            QueueAdmissionService queueAdmissionService,
             Logger logger) {
         this.logger = logger;
         this.transferController = new TransferController(transferService, logger);
@@ -41,6 +50,9 @@ public class RestServer {
         this.logsController = new LogsController(logsService, logger);
         this.healthController = new HealthController();
         this.performanceController = new PerformanceController(logger, serverListService);
+        this.prometheusController = new PrometheusController(prometheusService, logger);
+        this.loadBalancerController = new LoadBalancerController(loadBalancerService, logger);
+        this.queueAdmissionController = new QueueAdmissionController(queueAdmissionService, logger);
     }
 
     public void start(int port) {
@@ -55,10 +67,15 @@ public class RestServer {
         }).start(port);
 
         transferController.registerRoutes(app);
+        // Must be registered before /server/{name} so the literal path wins
+        loadBalancerController.registerRoutes(app);
         serverController.registerRoutes(app);
         queueController.registerRoutes(app);
+        queueAdmissionController.registerRoutes(app);
         healthController.registerRoutes(app);
         broadcastController.registerRoutes(app);
+        // Must be registered before /metrics/{serverIp} so the literal path wins
+        prometheusController.registerRoutes(app);
         metricsController.registerRoutes(app);
         serverManagementController.registerRoutes(app);
         logsController.registerRoutes(app);
@@ -97,5 +114,6 @@ public class RestServer {
             app.stop();
             logger.info("REST API stopped");
         }
+        metricsController.shutdown();
     }
 }
\ No newline at end of file
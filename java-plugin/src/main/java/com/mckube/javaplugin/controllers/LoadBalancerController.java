@@ -0,0 +1,81 @@
+package com.mckube.javaplugin.controllers;
+
+import com.mckube.javaplugin.services.LoadBalancerService;
+import com.mckube.javaplugin.utils.ControllerUtils;
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import org.slf4j.Logger;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public class LoadBalancerController {
+
+    private final LoadBalancerService loadBalancerService;
+    private final Logger logger;
+
+    public LoadBalancerController(LoadBalancerService loadBalancerService, Logger logger) {
+        this.loadBalancerService = loadBalancerService;
+        this.logger = logger;
+    }
+
+    public void registerRoutes(Javalin app) {
+        app.get("/server/select", this::handleSelect);
+    }
+
+    private void handleSelect(Context ctx) {
+        try {
+            String strategy = Optional.ofNullable(ctx.queryParam("strategy"))
+                    .orElse(loadBalancerService.getDefaultStrategy());
+            if (!loadBalancerService.getStrategyNames().contains(strategy)) {
+                Map<String, Object> response = ControllerUtils.createErrorResponse("Unknown balancing strategy: " + strategy);
+                response.put("strategies", loadBalancerService.getStrategyNames());
+                ctx.status(400).json(response);
+                return;
+            }
+
+            Set<String> excluded = new HashSet<>();
+            String exclude = ctx.queryParam("exclude");
+            if (exclude != null && !exclude.isBlank()) {
+                Arrays.stream(exclude.split(","))
+                        .map(String::trim)
+                        .filter(name -> !name.isEmpty())
+                        .forEach(excluded::add);
+            }
+
+            Optional<LoadBalancerService.Selection> selection = loadBalancerService.select(strategy, excluded);
+            if (selection.isEmpty()) {
+                ctx.status(503).json(ControllerUtils.createErrorResponse("No eligible backend available"));
+                return;
+            }
+
+            LoadBalancerService.Candidate candidate = selection.get().candidate();
+            Map<String, Object> server = new HashMap<>();
+            server.put("name", candidate.getName());
+            server.put("host", candidate.status().getHost());
+            server.put("port", candidate.status().getPort());
+            server.put("currentPlayers", candidate.status().getCurrentPlayers());
+            server.put("maxPlayers", candidate.status().getMaxPlayers());
+            server.put("latency", candidate.status().getLatency());
+            server.put("score", candidate.score());
+            if (candidate.metrics() != null) {
+                server.put("tps", candidate.metrics().tps());
+                server.put("processCpuPercent", candidate.metrics().processCpuPercent());
+            }
+
+            Map<String, Object> response = ControllerUtils.createSuccessResponse("Backend selected successfully");
+            response.put("server", server);
+            response.put("strategy", selection.get().strategy());
+            response.put("candidates", selection.get().candidateCount());
+
+            ctx.status(200).json(response);
+        } catch (Exception e) {
+            logger.error("Error selecting backend", e);
+            ctx.status(500).json(ControllerUtils.createErrorResponse("Failed to select backend"));
+        }
+    }
+}
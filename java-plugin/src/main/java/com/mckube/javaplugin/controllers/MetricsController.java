@@ -2,6 +2,7 @@ package com.mckube.javaplugin.controllers;
 
 import com.mckube.javaplugin.services.MetricsService;
 import com.mckube.javaplugin.services.MetricsData;
+import com.mckube.javaplugin.services.MetricsTrends;
 import com.mckube.javaplugin.services.ServerManagementService;
 import com.mckube.javaplugin.utils.ControllerUtils;
 import io.javalin.Javalin;
@@ -9,9 +10,18 @@ import io.javalin.http.Context;
 import org.slf4j.Logger;
 import java.time.format.DateTimeFormatter;
 import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.time.Instant;
 import java.time.Duration;
 
@@ -23,6 +33,16 @@ public class MetricsController {
     
     private final Map<String, CachedMetricsResponse> responseCache = new ConcurrentHashMap<>();
     private static final Duration CACHE_TTL = Duration.ofSeconds(3);
+
+    // A bounded queue only grows the pool once full, so all threads are core threads and idle ones time out
+    private static final int INGEST_THREADS = 4;
+    private static final int INGEST_QUEUE_CAPACITY = 256;
+    private static final int INGEST_RETRY_AFTER_SECONDS = 2;
+    private final ThreadPoolExecutor ingestExecutor;
+    private final AtomicLong ingestAccepted = new AtomicLong();
+    private final AtomicLong ingestRejected = new AtomicLong();
+    private final AtomicLong ingestCompleted = new AtomicLong();
+    private final AtomicLong ingestFailed = new AtomicLong();
     
     private static class CachedMetricsResponse {
         final Map<String, Object> response;
@@ -42,9 +62,26 @@ public class MetricsController {
         this.metricsService = metricsService;
         this.serverManagementService = serverManagementService;
         this.logger = logger;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.ingestExecutor = new ThreadPoolExecutor(
+                INGEST_THREADS,
+                INGEST_THREADS,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(INGEST_QUEUE_CAPACITY),
+                r -> {
+                    Thread thread = new Thread(r, "MC-Kube-Metrics-Ingest-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        ingestExecutor.allowCoreThreadTimeOut(true);
     }
 
     public void registerRoutes(Javalin app) {
+        app.get("/metrics/liveness", this::getLiveness);
+        app.get("/metrics/ingest/stats", this::getIngestStats);
         app.get("/metrics/{serverIp}", this::getMetrics);
         app.post("/metrics/{serverIp}", this::postMetrics);
     }
@@ -73,7 +110,8 @@ public class MetricsController {
                 return;
             }
 
-            Map<String, Object> response = buildMetricsResponse(data);
+            Map<String, Object> response = buildMetricsResponse(data, metricsService.getLiveness(serverIp),
+                    metricsService.getTrends(serverIp));
             responseCache.put(serverIp, new CachedMetricsResponse(response));
             
             ctx.status(200).json(response);
@@ -84,7 +122,42 @@ public class MetricsController {
         }
     }
     
-    private Map<String, Object> buildMetricsResponse(MetricsData data) {
+    private void getLiveness(Context ctx) {
+        try {
+            Map<String, MetricsService.MetricsLiveness> all = metricsService.getAllLiveness();
+            List<Map<String, Object>> servers = new ArrayList<>();
+            long staleCount = 0;
+
+            for (MetricsService.MetricsLiveness liveness : all.values()) {
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("server_ip", liveness.serverIp());
+                entry.put("server_name", liveness.serverName());
+                entry.put("last_received", String.valueOf(liveness.lastReceived()));
+                entry.put("age_ms", liveness.ageMillis());
+                entry.put("stale", liveness.stale());
+                servers.add(entry);
+                if (liveness.stale()) {
+                    staleCount++;
+                }
+            }
+
+            Map<String, Object> response = ControllerUtils.createSuccessResponse("Metrics liveness retrieved successfully");
+            response.put("servers", servers);
+            response.put("total_servers", servers.size());
+            response.put("stale_servers", staleCount);
+            response.put("push_interval_ms", metricsService.getPushInterval().toMillis());
+            response.put("stale_after_missed_intervals", metricsService.getStaleAfterMissedIntervals());
+            response.put("expiry_ttl_ms", metricsService.getExpiryTtlMillis());
+
+            ctx.status(200).json(response);
+        } catch (Exception e) {
+            logger.error("Error retrieving metrics liveness", e);
+            ctx.status(500).json(ControllerUtils.createErrorResponse("Failed to retrieve metrics liveness"));
+        }
+    }
+
+    private Map<String, Object> buildMetricsResponse(MetricsData data, MetricsService.MetricsLiveness liveness,
+                                                     MetricsTrends trends) {
         return Map.ofEntries(
                 new AbstractMap.SimpleEntry<>("success", true),
                 new AbstractMap.SimpleEntry<>("server_ip", data.serverIp()),
@@ -98,51 +171,117 @@ public class MetricsController {
                 new AbstractMap.SimpleEntry<>("system_memory_total_gb", round(data.systemMemoryTotalGB())),
                 new AbstractMap.SimpleEntry<>("system_memory_percent", round(data.systemMemoryPercent())),
                 new AbstractMap.SimpleEntry<>("tps", round(data.tps(), 2)),
-                new AbstractMap.SimpleEntry<>("tps_percent", round(data.tpsPercent()))
+                new AbstractMap.SimpleEntry<>("tps_percent", round(data.tpsPercent())),
+                new AbstractMap.SimpleEntry<>("stale", liveness == null || liveness.stale()),
+                new AbstractMap.SimpleEntry<>("last_received", liveness != null ? String.valueOf(liveness.lastReceived()) : "unknown"),
+                new AbstractMap.SimpleEntry<>("age_ms", liveness != null ? liveness.ageMillis() : -1L),
+                new AbstractMap.SimpleEntry<>("trends", buildTrendsResponse(trends))
         );
     }
 
+    private Map<String, Object> buildTrendsResponse(MetricsTrends trends) {
+        Map<String, Object> response = new HashMap<>();
+        if (trends == null) {
+            return response;
+        }
+        response.put("samples", trends.samples());
+        response.put("tps_1m", round(trends.tps1m(), 2));
+        response.put("tps_5m", round(trends.tps5m(), 2));
+        response.put("tps_15m", round(trends.tps15m(), 2));
+        response.put("process_cpu_percent_1m", round(trends.processCpu1m()));
+        response.put("process_cpu_percent_5m", round(trends.processCpu5m()));
+        response.put("process_cpu_percent_15m", round(trends.processCpu15m()));
+        response.put("system_cpu_percent_1m", round(trends.systemCpu1m()));
+        response.put("system_cpu_percent_5m", round(trends.systemCpu5m()));
+        response.put("system_cpu_percent_15m", round(trends.systemCpu15m()));
+        response.put("memory_percent_1m", round(trends.memoryPercent1m()));
+        response.put("memory_percent_5m", round(trends.memoryPercent5m()));
+        response.put("memory_percent_15m", round(trends.memoryPercent15m()));
+        response.put("memory_used_gb_1m", round(trends.memoryUsedGB1m()));
+        response.put("memory_used_gb_5m", round(trends.memoryUsedGB5m()));
+        response.put("memory_used_gb_15m", round(trends.memoryUsedGB15m()));
+        response.put("memory_growth_mb_per_min", round(trends.memoryGrowthMBPerMin()));
+        response.put("tps_trend_per_min", round(trends.tpsTrendPerMin(), 3));
+        return response;
+    }
+
     private void postMetrics(Context ctx) {
         String serverIp = ctx.pathParam("serverIp");
 
-        CompletableFuture<Object> future = CompletableFuture.supplyAsync(() -> {
-            try {
-                if (!ControllerUtils.validatePathParam(ctx, serverIp, "Server IP")) {
-                    return null;
-                }
+        if (!ControllerUtils.validatePathParam(ctx, serverIp, "Server IP")) {
+            return;
+        }
 
-                var body = ctx.bodyAsClass(MetricsData.class);
-                if (body == null) {
-                    ctx.status(400).json(ControllerUtils.createErrorResponse("Invalid or missing request body"));
+        MetricsData body;
+        try {
+            body = ctx.bodyAsClass(MetricsData.class);
+        } catch (Exception e) {
+            logger.debug("Invalid metrics payload from {}: {}", serverIp, e.getMessage());
+            body = null;
+        }
+        if (body == null) {
+            ctx.status(400).json(ControllerUtils.createErrorResponse("Invalid or missing request body"));
+            return;
+        }
+
+        MetricsData data = body;
+        CompletableFuture<Map<String, Object>> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> storeMetrics(serverIp, data), ingestExecutor);
+            ingestAccepted.incrementAndGet();
+        } catch (RejectedExecutionException e) {
+            long rejected = ingestRejected.incrementAndGet();
+            logger.debug("Metrics ingest queue full, shedding push from {} (rejected total: {})", serverIp, rejected);
+            ctx.header("Retry-After", String.valueOf(INGEST_RETRY_AFTER_SECONDS));
+            ctx.status(503).json(ControllerUtils.createErrorResponse("Metrics ingest is overloaded, retry later"));
+            return;
+        }
+
+        ctx.future(() -> future
+                .thenAccept(response -> ctx.status(200).json(response))
+                .exceptionally(throwable -> {
+                    ingestFailed.incrementAndGet();
+                    logger.error("Error updating metrics for server IP: " + serverIp, throwable);
+                    ctx.status(500).json(ControllerUtils.createErrorResponse("Internal server error while updating metrics"));
                     return null;
-                }
+                }));
+    }
 
-                // Resolve server name from IP
-                String serverName = serverManagementService.getServerNameByIp(serverIp);
-                
-                metricsService.putMetrics(serverIp, body, serverName);
+    private Map<String, Object> storeMetrics(String serverIp, MetricsData data) {
+        // Resolve server name from IP
+        String serverName = serverManagementService.getServerNameByIp(serverIp);
 
-                Map<String, Object> response = ControllerUtils.createSuccessResponse("Metrics updated successfully for server: " + serverIp);
-                response.put("server_ip", serverIp);
-                if (serverName != null) {
-                    response.put("server_name", serverName);
-                }
+        metricsService.putMetrics(serverIp, data, serverName);
+        ingestCompleted.incrementAndGet();
 
-                ctx.status(200).json(response);
-                return null;
+        Map<String, Object> response = ControllerUtils.createSuccessResponse("Metrics updated successfully for server: " + serverIp);
+        response.put("server_ip", serverIp);
+        if (serverName != null) {
+            response.put("server_name", serverName);
+        }
+        return response;
+    }
 
-            } catch (Exception e) {
-                logger.error("Error updating metrics for server IP: " + serverIp, e);
-                ctx.status(500).json(ControllerUtils.createErrorResponse("Internal server error while updating metrics"));
-                return null;
-            }
-        }).exceptionally(throwable -> {
-            logger.error("Unexpected error in metrics update handler for server IP: " + serverIp, throwable);
-            ctx.status(500).json(ControllerUtils.createErrorResponse("Failed to update metrics"));
-            return null;
-        });
+    private void getIngestStats(Context ctx) {
+        try {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("queue_depth", ingestExecutor.getQueue().size());
+            stats.put("queue_capacity", INGEST_QUEUE_CAPACITY);
+            stats.put("active_workers", ingestExecutor.getActiveCount());
+            stats.put("pool_size", ingestExecutor.getPoolSize());
+            stats.put("max_pool_size", ingestExecutor.getMaximumPoolSize());
+            stats.put("accepted_total", ingestAccepted.get());
+            stats.put("rejected_total", ingestRejected.get());
+            stats.put("completed_total", ingestCompleted.get());
+            stats.put("failed_total", ingestFailed.get());
 
-        ctx.future(() -> future);
+            Map<String, Object> response = ControllerUtils.createSuccessResponse("Metrics ingest stats retrieved successfully");
+            response.put("stats", stats);
+            ctx.status(200).json(response);
+        } catch (Exception e) {
+            logger.error("Error retrieving metrics ingest stats", e);
+            ctx.status(500).json(ControllerUtils.createErrorResponse("Failed to retrieve metrics ingest stats"));
+        }
     }
 
     private static double round(double v) {
@@ -166,4 +305,16 @@ public class MetricsController {
     public void cleanupCache() {
         responseCache.entrySet().removeIf(entry -> entry.getValue().isExpired());
     }
+    
+    public void shutdown() {
+        ingestExecutor.shutdown();
+        try {
+            if (!ingestExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                ingestExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ingestExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
 }
\ No newline at end of file
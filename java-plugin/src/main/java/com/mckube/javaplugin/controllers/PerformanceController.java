@@ -51,6 +51,9 @@ public class PerformanceController {
             
             stats.put("available_processors", Runtime.getRuntime().availableProcessors());
             
+            
+            stats.put("server_refresh", serverListService.getRefreshStats());
+            
             Map<String, Object> response = ControllerUtils.createSuccessResponse("Performance stats retrieved successfully");
             response.put("stats", stats);
             
@@ -0,0 +1,38 @@
+package com.mckube.javaplugin.controllers;
+
+import com.mckube.javaplugin.services.PrometheusService;
+import com.mckube.javaplugin.utils.ControllerUtils;
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import org.slf4j.Logger;
+
+import java.util.concurrent.CompletableFuture;
+
+public class PrometheusController {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final PrometheusService prometheusService;
+    private final Logger logger;
+
+    public PrometheusController(PrometheusService prometheusService, Logger logger) {
+        this.prometheusService = prometheusService;
+        this.logger = logger;
+    }
+
+    public void registerRoutes(Javalin app) {
+        app.get("/metrics/prometheus", this::handleScrape);
+    }
+
+    private void handleScrape(Context ctx) {
+        CompletableFuture<Void> future = prometheusService.scrape()
+                .thenAccept(body -> ctx.status(200).contentType(CONTENT_TYPE).result(body))
+                .exceptionally(throwable -> {
+                    logger.error("Error rendering Prometheus metrics", throwable);
+                    ctx.status(500).json(ControllerUtils.createErrorResponse("Failed to render Prometheus metrics"));
+                    return null;
+                });
+
+        ctx.future(() -> future);
+    }
+}
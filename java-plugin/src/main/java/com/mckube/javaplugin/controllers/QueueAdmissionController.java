@@ -0,0 +1,76 @@
+package com.mckube.javaplugin.controllers;
+
+import com.google.gson.JsonObject;
+import com.mckube.javaplugin.services.QueueAdmissionService;
+import com.mckube.javaplugin.utils.ControllerUtils;
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import org.slf4j.Logger;
+
+import java.util.Map;
+
+public class QueueAdmissionController {
+
+    private final QueueAdmissionService queueAdmissionService;
+    private final Logger logger;
+
+    public QueueAdmissionController(QueueAdmissionService queueAdmissionService, Logger logger) {
+        this.queueAdmissionService = queueAdmissionService;
+        this.logger = logger;
+    }
+
+    public void registerRoutes(Javalin app) {
+        app.get("/queue/admission", this::getAdmission);
+        app.post("/queue/admission", this::updateAdmission);
+    }
+
+    private void getAdmission(Context ctx) {
+        try {
+            Map<String, Object> response = ControllerUtils.createSuccessResponse("Queue admission stats retrieved successfully");
+            response.put("admission", queueAdmissionService.getStats());
+            ctx.status(200).json(response);
+        } catch (Exception e) {
+            logger.error("Error retrieving queue admission stats", e);
+            ctx.status(500).json(ControllerUtils.createErrorResponse("Failed to retrieve queue admission stats"));
+        }
+    }
+
+    private void updateAdmission(Context ctx) {
+        try {
+            JsonObject jsonObject = ControllerUtils.parseAndValidateRequestBody(ctx);
+            if (jsonObject == null) return;
+
+            if (!jsonObject.has("rate") && !jsonObject.has("enabled")) {
+                ctx.status(400).json(ControllerUtils.createErrorResponse("Provide 'rate' and/or 'enabled'"));
+                return;
+            }
+
+            if (jsonObject.has("rate")) {
+                double rate;
+                try {
+                    rate = jsonObject.get("rate").getAsDouble();
+                } catch (RuntimeException e) {
+                    ctx.status(400).json(ControllerUtils.createErrorResponse("Rate must be a number"));
+                    return;
+                }
+                try {
+                    queueAdmissionService.setAdmissionRate(rate);
+                } catch (IllegalArgumentException e) {
+                    ctx.status(400).json(ControllerUtils.createErrorResponse(e.getMessage()));
+                    return;
+                }
+            }
+
+            if (jsonObject.has("enabled")) {
+                queueAdmissionService.setEnabled(jsonObject.get("enabled").getAsBoolean());
+            }
+
+            Map<String, Object> response = ControllerUtils.createSuccessResponse("Queue admission updated successfully");
+            response.put("admission", queueAdmissionService.getStats());
+            ctx.status(200).json(response);
+        } catch (Exception e) {
+            logger.error("Error updating queue admission", e);
+            ctx.status(500).json(ControllerUtils.createErrorResponse("Failed to update queue admission"));
+        }
+    }
+}
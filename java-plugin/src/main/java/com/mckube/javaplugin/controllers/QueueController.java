@@ -46,10 +46,47 @@ public class QueueController {
     public void registerRoutes(Javalin app) {
         app.get("/queue/list", this::getQueueList);
         app.get("/queue/count", this::getQueueCount);
+        app.get("/queue/{name}/list", this::getNamedQueueList);
+        app.get("/queue/{name}/count", this::getNamedQueueCount);
         app.post("/queue/remove", this::removePlayer);
     }
 
     private void getQueueList(Context ctx) {
+        handleQueueList(ctx, QueueListService.DEFAULT_QUEUE);
+    }
+
+    private void getNamedQueueList(Context ctx) {
+        String queueName = resolveQueueName(ctx);
+        if (queueName != null) {
+            handleQueueList(ctx, queueName);
+        }
+    }
+
+    /**
+     * Path queue name if it exists, otherwise responds 404 and returns null
+     */
+    private String resolveQueueName(Context ctx) {
+        String queueName = ctx.pathParam("name");
+        if (!queueListService.hasQueue(queueName)) {
+            Map<String, Object> response = ControllerUtils.createErrorResponse("Queue not found: " + queueName);
+            response.put("queues", queueListService.getQueueNames());
+            ctx.status(404).json(response);
+            return null;
+        }
+        return queueName;
+    }
+
+    private void handleQueueList(Context ctx, String queueName) {
+        Integer offset;
+        Integer limit;
+        try {
+            offset = parseNonNegative(ctx.queryParam("offset"));
+            limit = parseNonNegative(ctx.queryParam("limit"));
+        } catch (NumberFormatException e) {
+            ctx.status(400).json(ControllerUtils.createErrorResponse("Invalid offset or limit, expected a non-negative integer"));
+            return;
+        }
+
         CompletableFuture.supplyAsync(() -> {
             try {
                 String type = ctx.queryParam("type");
@@ -59,10 +96,15 @@ public class QueueController {
                 }
                 
                 
-                CachedQueueData cached = queueCache.get(type);
+                if (offset != null || limit != null) {
+                    return createPagedQueueResponse(queueName, type, offset != null ? offset : 0,
+                            limit != null ? limit : Integer.MAX_VALUE);
+                }
+
+                CachedQueueData cached = queueCache.get(queueName + ":" + type);
                 if (cached != null && !cached.isExpired()) {
-                    logger.debug("Serving queue list from cache for type: {}", type);
-                    return createQueueResponse(cached.data, cached.type);
+                    logger.debug("Serving queue list from cache for {} ({})", queueName, type);
+                    return createQueueResponse(queueName, cached.data, cached.type);
                 }
 
                 List<String> queueData;
@@ -70,20 +112,20 @@ public class QueueController {
 
                 switch (type.toLowerCase()) {
                     case "uuid":
-                        queueData = queueListService.getQueuedPlayerUUIDs();
+                        queueData = queueListService.getQueuedPlayerUUIDs(queueName, 0, Integer.MAX_VALUE);
                         listType = "uuid";
                         break;
                     case "username":
                     default:
-                        queueData = queueListService.getQueuedPlayerNames();
+                        queueData = queueListService.getQueuedPlayerNames(queueName, 0, Integer.MAX_VALUE);
                         listType = "username";
                         break;
                 }
                 
                 
-                queueCache.put(listType, new CachedQueueData(queueData, listType));
+                queueCache.put(queueName + ":" + listType, new CachedQueueData(queueData, listType));
                 
-                return createQueueResponse(queueData, listType);
+                return createQueueResponse(queueName, queueData, listType);
 
             } catch (Exception e) {
                 logger.error("Error getting queue list", e);
@@ -98,31 +140,71 @@ public class QueueController {
         });
     }
     
-    private Map<String, Object> createQueueResponse(List<String> queueData, String listType) {
+    private Map<String, Object> createQueueResponse(String queueName, List<String> queueData, String listType) {
         Map<String, Object> response = ControllerUtils.createSuccessResponse("Queue list retrieved successfully");
+        response.put("queue", queueName);
         response.put("queueList", queueData);
         response.put("queueCount", queueData.size());
         response.put("listType", listType);
+        response.put("tiers", queueListService.getTierCounts(queueName));
         return response;
     }
 
+    /**
+     * Pages are sliced from the service's published view, so they skip the list cache.
+     * Username pages only list online players, so {@code offset} counts online players too.
+     */
+    private Map<String, Object> createPagedQueueResponse(String queueName, String type, int offset, int limit) {
+        boolean uuids = type.equalsIgnoreCase("uuid");
+        List<String> queueData = uuids
+                ? queueListService.getQueuedPlayerUUIDs(queueName, offset, limit)
+                : queueListService.getQueuedPlayerNames(queueName, offset, limit);
+
+        Map<String, Object> response = createQueueResponse(queueName, queueData, uuids ? "uuid" : "username");
+        response.put("queueCount", queueListService.getQueueCount(queueName));
+        response.put("offset", offset);
+        response.put("pageSize", queueData.size());
+        return response;
+    }
+
+    /**
+     * Null when the parameter is absent; throws NumberFormatException when it is malformed
+     * or negative
+     */
+    private static Integer parseNonNegative(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        int parsed = Integer.parseInt(value.trim());
+        if (parsed < 0) {
+            throw new NumberFormatException("Negative value: " + parsed);
+        }
+        return parsed;
+    }
+
     private void getQueueCount(Context ctx) {
+        handleQueueCount(ctx, QueueListService.DEFAULT_QUEUE);
+    }
+
+    private void getNamedQueueCount(Context ctx) {
+        String queueName = resolveQueueName(ctx);
+        if (queueName != null) {
+            handleQueueCount(ctx, queueName);
+        }
+    }
+
+    private void handleQueueCount(Context ctx, String queueName) {
         CompletableFuture.supplyAsync(() -> {
             try {
-                
-                CachedQueueData usernameCache = queueCache.get("username");
-                if (usernameCache != null && !usernameCache.isExpired()) {
-                    logger.debug("Serving queue count from cache");
-                    return usernameCache.data.size();
-                }
-                
-                return queueListService.getQueueCount();
+                // A volatile read in the service, no cache needed
+                return queueListService.getQueueCount(queueName);
             } catch (Exception e) {
                 logger.error("Error getting queue count", e);
                 throw new RuntimeException("Failed to get queue count", e);
             }
         }).thenAccept(queueCount -> {
             Map<String, Object> response = ControllerUtils.createSuccessResponse("Queue count retrieved successfully");
+            response.put("queue", queueName);
             response.put("count", queueCount);
             ctx.status(200).json(response);
         }).exceptionally(throwable -> {
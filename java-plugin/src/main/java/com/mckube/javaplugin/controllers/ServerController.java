@@ -1,63 +1,106 @@
 package com.mckube.javaplugin.controllers;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mckube.javaplugin.services.ClusterSnapshot;
 import com.mckube.javaplugin.services.ServerListService;
+import com.mckube.javaplugin.services.ServerTransition;
 import com.mckube.javaplugin.utils.ControllerUtils;
+import com.mckube.javaplugin.utils.LatencyHistogram;
 import io.javalin.Javalin;
 import io.javalin.http.Context;
+import io.javalin.http.sse.SseClient;
 import org.slf4j.Logger;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 public class ServerController {
 
     private final ServerListService serverListService;
     private final Logger logger;
+    private final Set<SseClient> eventClients = ConcurrentHashMap.newKeySet();
+
+    private static final String JSON_CONTENT_TYPE = "application/json";
+    private static final long LATENCY_STATS_REFRESH_MS = 30_000;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 500;
+    // Only these switch /server/list into paged mode, so cache-busters and the like don't
+    private static final List<String> LIST_QUERY_PARAMS = List.of(
+            "limit", "cursor", "sort", "order", "status", "enabled", "loadStatus");
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Distinguishes ETags across restarts, since snapshot versions start over at zero
+    private final String etagPrefix = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicReference<CachedBody> cachedListBody = new AtomicReference<>();
+    private final AtomicReference<CachedBody> cachedOverviewBody = new AtomicReference<>();
+
+    private record CachedBody(String key, String etag, byte[] body) {}
 
     public ServerController(ServerListService serverListService, Logger logger) {
         this.serverListService = serverListService;
         this.logger = logger;
+        serverListService.addTransitionListener(this::broadcastTransition);
     }
 
     public void registerRoutes(Javalin app) {
         app.get("/server/list", this::handleServerList);
         app.get("/server/overview", this::handleServerOverview);
+        app.sse("/server/events", this::handleServerEvents);
         app.get("/server/{name}", this::handleServerDetails);
     }
 
+    private void handleServerEvents(SseClient client) {
+        client.keepAlive();
+        client.onClose(() -> eventClients.remove(client));
+        eventClients.add(client);
+
+        Map<String, Object> hello = new HashMap<>();
+        hello.put("snapshotVersion", serverListService.getStatusVersion());
+        hello.put("subscribers", eventClients.size());
+        client.sendEvent("connected", hello);
+        logger.debug("Server event stream subscriber connected ({} total)", eventClients.size());
+    }
+
+    private void broadcastTransition(ServerTransition transition) {
+        if (eventClients.isEmpty()) {
+            return;
+        }
+
+        Map<String, Object> data = transition.toMap();
+        for (SseClient client : eventClients) {
+            if (client.terminated()) {
+                eventClients.remove(client);
+                continue;
+            }
+            try {
+                client.sendEvent(transition.type().getValue(), data);
+            } catch (Exception e) {
+                logger.debug("Dropping server event subscriber: {}", e.getMessage());
+                eventClients.remove(client);
+            }
+        }
+    }
+
     private void handleServerList(Context ctx) {
-        CompletableFuture<Void> future = serverListService.getAllServersWithStatus()
-                .thenAccept(servers -> {
+        CompletableFuture<Void> future = serverListService.getClusterSnapshot()
+                .thenAccept(snapshot -> {
                     try {
-                        List<Map<String, Object>> basicServerInfo = servers.stream()
-                                .map(server -> {
-                                    Map<String, Object> info = new HashMap<>();
-                                    info.put("name", server.getName());
-                                    info.put("host", server.getHost());
-                                    info.put("port", server.getPort());
-                                    info.put("status", server.getStatus());
-                                    info.put("enabled", server.isEnabled()); 
-                                    info.put("currentPlayers", server.getCurrentPlayers());
-                                    info.put("maxPlayers", server.getMaxPlayers());
-                                    info.put("loadPercentage", server.getLoadPercentage());
-                                    info.put("loadStatus", server.getLoadStatus());
-                                    info.put("isHealthy", server.isHealthy());
-                                    info.put("latency", server.getLatency());
-                                    info.put("version", server.getVersion());
-                                    info.put("motd", server.getMotd());
-                                    info.put("serverTimestamp", server.getTimestamp());
-                                    return info;
-                                })
-                                .toList();
-
-                        Map<String, Object> response = ControllerUtils.createSuccessResponse("Server list retrieved successfully");
-                        response.put("servers", basicServerInfo);
-                        response.put("totalServers", servers.size());
+                        if (LIST_QUERY_PARAMS.stream().anyMatch(param -> ctx.queryParam(param) != null)) {
+                            handleServerListQuery(ctx, snapshot, ctx.queryString());
+                            return;
+                        }
 
-                        ctx.status(200).json(response);
+                        CachedBody body = cachedBody(cachedListBody, "list-" + snapshot.getVersion(),
+                                () -> buildServerListResponse(snapshot.getServers()));
+                        respondCached(ctx, body);
                     } catch (Exception e) {
                         logger.error("Error building server list response", e);
                         ctx.status(500).json(ControllerUtils.createErrorResponse("Error building response"));
@@ -72,63 +115,103 @@ public class ServerController {
         ctx.future(() -> future);
     }
 
-    private void handleServerOverview(Context ctx) {
-        CompletableFuture<Void> future = serverListService.getAllServersWithStatus()
-                .thenAccept(servers -> {
-                    try {
-                        
-                        List<ServerListService.ServerStatus> onlineServers = new ArrayList<>();
-                        List<ServerListService.ServerStatus> enabledServers = new ArrayList<>();
-                        int totalPlayers = 0;
-                        int totalMaxPlayers = 0;
-                        long healthyCount = 0;
+    private void handleServerListQuery(Context ctx, ClusterSnapshot snapshot, String queryString) throws JsonProcessingException {
+        Optional<ClusterSnapshot.SortKey> sortKey = ClusterSnapshot.SortKey.fromString(
+                Optional.ofNullable(ctx.queryParam("sort")).orElse("name"));
+        if (sortKey.isEmpty()) {
+            ctx.status(400).json(ControllerUtils.createErrorResponse("Invalid sort, expected one of: name, load, latency"));
+            return;
+        }
 
-                        
-                        for (ServerListService.ServerStatus server : servers) {
-                            if (server.isEnabled()) {
-                                enabledServers.add(server);
-                                totalPlayers += server.getCurrentPlayers();
-                            }
-                            
-                            if ("online".equals(server.getStatus())) {
-                                onlineServers.add(server);
-                                totalMaxPlayers += server.getMaxPlayers();
-                            }
-                            
-                            if (server.isHealthy()) {
-                                healthyCount++;
-                            }
-                        }
+        String order = ctx.queryParam("order");
+        if (order != null && !order.equalsIgnoreCase("asc") && !order.equalsIgnoreCase("desc")) {
+            ctx.status(400).json(ControllerUtils.createErrorResponse("Invalid order, expected asc or desc"));
+            return;
+        }
+        // Busiest servers first is the useful default when sorting by load
+        boolean descending = order != null ? order.equalsIgnoreCase("desc") : sortKey.get() == ClusterSnapshot.SortKey.LOAD;
 
-                        
-                        Map<String, Object> summary = buildSummaryOptimized(servers, enabledServers, onlineServers, healthyCount, totalPlayers);
-                        
-                        
-                        List<Map<String, Object>> playerInfo = servers.stream()
-                                .map(server -> {
-                                    Map<String, Object> info = new HashMap<>();
-                                    info.put("name", server.getName());
-                                    info.put("currentPlayers", server.getCurrentPlayers());
-                                    info.put("maxPlayers", server.getMaxPlayers());
-                                    info.put("loadPercentage", server.getLoadPercentage());
-                                    info.put("loadStatus", server.getLoadStatus());
-                                    info.put("status", server.getStatus()); 
-                                    info.put("enabled", server.isEnabled()); 
-                                    info.put("isHealthy", server.isHealthy()); 
-                                    return info;
-                                })
-                                .toList();
-
-                        double networkLoadPercentage = totalMaxPlayers > 0 ? (double) totalPlayers / totalMaxPlayers * 100.0 : 0.0;
-
-                        Map<String, Object> response = ControllerUtils.createSuccessResponse("Server overview retrieved successfully");
-                        response.putAll(summary);
-                        response.put("playerDetails", playerInfo);
-                        response.put("totalActivePlayers", totalPlayers);
-                        response.put("totalMaxPlayers", totalMaxPlayers);
-                        response.put("networkLoadPercentage", networkLoadPercentage);
+        int limit = DEFAULT_PAGE_SIZE;
+        String limitParam = ctx.queryParam("limit");
+        if (limitParam != null) {
+            try {
+                limit = Integer.parseInt(limitParam);
+            } catch (NumberFormatException e) {
+                limit = -1;
+            }
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                ctx.status(400).json(ControllerUtils.createErrorResponse("Invalid limit, expected 1-" + MAX_PAGE_SIZE));
+                return;
+            }
+        }
 
-                        ctx.status(200).json(response);
+        ClusterSnapshot.Cursor after = null;
+        String cursor = ctx.queryParam("cursor");
+        if (cursor != null && !cursor.isEmpty()) {
+            try {
+                after = ClusterSnapshot.Cursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                ctx.status(400).json(ControllerUtils.createErrorResponse("Invalid cursor"));
+                return;
+            }
+            if (after.key() != sortKey.get()) {
+                ctx.status(400).json(ControllerUtils.createErrorResponse("Cursor does not match sort, restart paging without it"));
+                return;
+            }
+        }
+
+        String statusFilter = ctx.queryParam("status");
+        String enabledFilter = ctx.queryParam("enabled");
+        String loadStatusFilter = ctx.queryParam("loadStatus");
+        Predicate<ServerListService.ServerStatus> filter = server ->
+                (statusFilter == null || statusFilter.equalsIgnoreCase(server.getStatus()))
+                        && (enabledFilter == null || Boolean.parseBoolean(enabledFilter) == server.isEnabled())
+                        && (loadStatusFilter == null || loadStatusFilter.equalsIgnoreCase(server.getLoadStatus()));
+
+        // The same query against the same snapshot always yields the same page
+        String etag = "\"" + etagPrefix + "-list-" + snapshot.getVersion() + "-" + Integer.toHexString(queryString.hashCode()) + "\"";
+        ctx.header("ETag", etag);
+        ctx.header("Cache-Control", "no-cache");
+        String ifNoneMatch = ctx.header("If-None-Match");
+        if (ifNoneMatch != null && etagMatches(ifNoneMatch, etag)) {
+            ctx.status(304);
+            return;
+        }
+
+        ClusterSnapshot.Page page = snapshot.page(sortKey.get(), descending, filter, after, limit);
+
+        Map<String, Object> response = buildServerListResponse(page.servers());
+        response.put("totalServers", snapshot.getTotalServers());
+        response.put("count", page.servers().size());
+        response.put("hasMore", page.hasMore());
+        response.put("nextCursor", page.hasMore() ? page.nextCursor().encode() : null);
+        response.put("sort", sortKey.get().name().toLowerCase());
+        response.put("order", descending ? "desc" : "asc");
+
+        ctx.status(200).contentType(JSON_CONTENT_TYPE).result(objectMapper.writeValueAsBytes(response));
+    }
+
+    private Map<String, Object> buildServerListResponse(List<ServerListService.ServerStatus> servers) {
+        List<Map<String, Object>> basicServerInfo = servers.stream()
+                .map(this::buildServerInfo)
+                .toList();
+
+        Map<String, Object> response = ControllerUtils.createSuccessResponse("Server list retrieved successfully");
+        response.put("servers", basicServerInfo);
+        response.put("totalServers", servers.size());
+        return response;
+    }
+
+    private void handleServerOverview(Context ctx) {
+        CompletableFuture<Void> future = serverListService.getClusterSnapshot()
+                .thenAccept(snapshot -> {
+                    try {
+                        // Latency percentiles move with every ping, so they are refreshed on a coarse epoch
+                        long latencyEpoch = System.currentTimeMillis() / LATENCY_STATS_REFRESH_MS;
+                        CachedBody body = cachedBody(cachedOverviewBody,
+                                "overview-" + snapshot.getVersion() + "-" + latencyEpoch,
+                                () -> buildOverviewResponse(snapshot));
+                        respondCached(ctx, body);
                     } catch (Exception e) {
                         logger.error("Error building server overview response", e);
                         ctx.status(500).json(ControllerUtils.createErrorResponse("Error building server overview"));
@@ -143,10 +226,106 @@ public class ServerController {
         ctx.future(() -> future);
     }
 
+    private Map<String, Object> buildServerInfo(ServerListService.ServerStatus server) {
+        Map<String, Object> info = new HashMap<>();
+        info.put("name", server.getName());
+        info.put("host", server.getHost());
+        info.put("port", server.getPort());
+        info.put("status", server.getStatus());
+        info.put("enabled", server.isEnabled()); 
+        info.put("currentPlayers", server.getCurrentPlayers());
+        info.put("maxPlayers", server.getMaxPlayers());
+        info.put("loadPercentage", server.getLoadPercentage());
+        info.put("loadStatus", server.getLoadStatus());
+        info.put("isHealthy", server.isHealthy());
+        info.put("circuitState", server.getCircuitState().getValue());
+        info.put("latency", server.getLatency());
+        info.put("version", server.getVersion());
+        info.put("motd", server.getMotd());
+        info.put("serverTimestamp", server.getTimestamp());
+        return info;
+    }
+
+    private Map<String, Object> buildOverviewResponse(ClusterSnapshot snapshot) {
+        Map<String, Object> summary = buildSummary(snapshot);
+        
+        
+        List<Map<String, Object>> playerInfo = snapshot.getServers().stream()
+                .map(server -> {
+                    Map<String, Object> info = new HashMap<>();
+                    info.put("name", server.getName());
+                    info.put("currentPlayers", server.getCurrentPlayers());
+                    info.put("maxPlayers", server.getMaxPlayers());
+                    info.put("loadPercentage", server.getLoadPercentage());
+                    info.put("loadStatus", server.getLoadStatus());
+                    info.put("status", server.getStatus()); 
+                    info.put("enabled", server.isEnabled()); 
+                    info.put("isHealthy", server.isHealthy()); 
+                    serverListService.getLatencyStats(server.getName())
+                            .ifPresent(stats -> info.put("latencyStats", buildLatencyStats(stats)));
+                    return info;
+                })
+                .toList();
+
+        Map<String, Object> response = ControllerUtils.createSuccessResponse("Server overview retrieved successfully");
+        response.putAll(summary);
+        response.put("playerDetails", playerInfo);
+        response.put("totalActivePlayers", snapshot.getTotalPlayers());
+        response.put("totalMaxPlayers", snapshot.getTotalMaxPlayers());
+        response.put("networkLoadPercentage", snapshot.getNetworkLoadPercentage());
+        response.put("snapshotVersion", snapshot.getVersion());
+        return response;
+    }
+
+    /**
+     * Returns the serialized body for the given key, building and caching it only when the key
+     * (derived from the snapshot version) has changed since the last request
+     */
+    private CachedBody cachedBody(AtomicReference<CachedBody> cache, String key,
+                                  Supplier<Map<String, Object>> builder) throws JsonProcessingException {
+        CachedBody current = cache.get();
+        if (current != null && current.key().equals(key)) {
+            return current;
+        }
+
+        byte[] body = objectMapper.writeValueAsBytes(builder.get());
+        logger.debug("Serialized response body {} ({} bytes)", key, body.length);
+        CachedBody next = new CachedBody(key, "\"" + etagPrefix + "-" + key + "\"", body);
+        cache.set(next);
+        return next;
+    }
+
+    private void respondCached(Context ctx, CachedBody cached) {
+        ctx.header("ETag", cached.etag());
+        ctx.header("Cache-Control", "no-cache");
+
+        String ifNoneMatch = ctx.header("If-None-Match");
+        if (ifNoneMatch != null && etagMatches(ifNoneMatch, cached.etag())) {
+            ctx.status(304);
+            return;
+        }
+
+        ctx.status(200).contentType(JSON_CONTENT_TYPE).result(cached.body());
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void handleServerDetails(Context ctx) {
         String serverName = ctx.pathParam("name");
+        boolean fresh = Boolean.parseBoolean(ctx.queryParam("fresh"));
 
-        CompletableFuture<Void> future = serverListService.getServerByName(serverName)
+        CompletableFuture<Void> future = serverListService.getServerByName(serverName, fresh)
                 .thenAccept(serverOpt -> {
                     try {
                         if (serverOpt.isEmpty()) {
@@ -170,7 +349,11 @@ public class ServerController {
                         response.put("loadPercentage", server.getLoadPercentage());
                         response.put("loadStatus", server.getLoadStatus());
                         response.put("isHealthy", server.isHealthy());
+                        response.put("circuitState", server.getCircuitState().getValue());
                         response.put("serverTimestamp", server.getTimestamp());
+                        response.put("fresh", fresh);
+                        serverListService.getLatencyStats(server.getName())
+                                .ifPresent(stats -> response.put("latencyStats", buildLatencyStats(stats)));
 
                         ctx.status(200).json(response);
                     } catch (Exception e) {
@@ -217,18 +400,29 @@ public class ServerController {
     }
     
     
-    private Map<String, Object> buildSummaryOptimized(List<ServerListService.ServerStatus> servers, 
-                                                     List<ServerListService.ServerStatus> enabledServers,
-                                                     List<ServerListService.ServerStatus> onlineServers,
-                                                     long healthyCount, int totalPlayers) {
+    private Map<String, Object> buildLatencyStats(LatencyHistogram.Summary stats) {
+        Map<String, Object> latency = new HashMap<>();
+        latency.put("p50_ms", stats.p50Millis());
+        latency.put("p90_ms", stats.p90Millis());
+        latency.put("p99_ms", stats.p99Millis());
+        latency.put("max_ms", stats.maxMillis());
+        latency.put("samples", stats.samples());
+        latency.put("timeouts", stats.timeouts());
+        latency.put("failures", stats.failures());
+        latency.put("timeout_rate", stats.timeoutRate());
+        latency.put("window_seconds", stats.windowSeconds());
+        return latency;
+    }
+
+    private Map<String, Object> buildSummary(ClusterSnapshot snapshot) {
         Map<String, Object> summary = new HashMap<>();
-        summary.put("totalServers", servers.size());
-        summary.put("enabledServers", enabledServers.size());
-        summary.put("disabledServers", servers.size() - enabledServers.size());
-        summary.put("onlineServers", onlineServers.size());
-        summary.put("offlineServers", enabledServers.size() - onlineServers.size()); 
-        summary.put("healthyServers", healthyCount);
-        summary.put("totalPlayers", totalPlayers);
+        summary.put("totalServers", snapshot.getTotalServers());
+        summary.put("enabledServers", snapshot.getEnabledServers());
+        summary.put("disabledServers", snapshot.getDisabledServers());
+        summary.put("onlineServers", snapshot.getOnlineServers());
+        summary.put("offlineServers", snapshot.getOfflineServers()); 
+        summary.put("healthyServers", snapshot.getHealthyServers());
+        summary.put("totalPlayers", snapshot.getTotalPlayers());
         return summary;
     }
 }
\ No newline at end of file
@@ -0,0 +1,290 @@
+package com.mckube.javaplugin.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Immutable view of every known server's status at one point in time. A new snapshot is
+ * built for every change and published through a single volatile reference, so readers
+ * always see a complete, consistent cluster state without locking. Updates that are
+ * equivalent to what is already held return the same snapshot, so the version only moves
+ * when something a client could see has changed.
+ */
+public final class ClusterSnapshot {
+
+    private static final ClusterSnapshot EMPTY = new ClusterSnapshot(0, new LinkedHashMap<>());
+
+    private final long version;
+    private final List<ServerListService.ServerStatus> servers;
+    private final Map<String, ServerListService.ServerStatus> byName;
+    private final int enabledServers;
+    private final int onlineServers;
+    private final int healthyServers;
+    private final int totalPlayers;
+    private final int totalMaxPlayers;
+    private final long createdAtMillis;
+    private final AtomicReferenceArray<List<ServerListService.ServerStatus>> sortedViews =
+            new AtomicReferenceArray<>(SortKey.values().length);
+
+    /**
+     * Servers are ordered by a numeric sort value, then by name case-insensitively, then by
+     * exact name, so every server has a unique position a cursor can point at
+     */
+    public enum SortKey {
+        NAME(status -> 0),
+        LOAD(ServerListService.ServerStatus::getLoadPercentage),
+        // Servers without a measured latency sort after every reachable one
+        LATENCY(status -> status.getLatency() > 0 ? status.getLatency() : Long.MAX_VALUE);
+
+        private final ToDoubleFunction<ServerListService.ServerStatus> sortValue;
+        private final Comparator<ServerListService.ServerStatus> comparator;
+
+        SortKey(ToDoubleFunction<ServerListService.ServerStatus> sortValue) {
+            this.sortValue = sortValue;
+            this.comparator = Comparator.comparingDouble(sortValue)
+                    .thenComparing(ServerListService.ServerStatus::getName, String.CASE_INSENSITIVE_ORDER)
+                    .thenComparing(ServerListService.ServerStatus::getName);
+        }
+
+        /**
+         * Where {@code status} sorts relative to the position {@code cursor} marks
+         */
+        int compare(ServerListService.ServerStatus status, Cursor cursor) {
+            int result = Double.compare(sortValue.applyAsDouble(status), cursor.sortValue());
+            if (result == 0) {
+                result = String.CASE_INSENSITIVE_ORDER.compare(status.getName(), cursor.serverName());
+            }
+            return result != 0 ? result : status.getName().compareTo(cursor.serverName());
+        }
+
+        Cursor cursorAt(ServerListService.ServerStatus status) {
+            return new Cursor(this, sortValue.applyAsDouble(status), status.getName());
+        }
+
+        public static Optional<SortKey> fromString(String value) {
+            for (SortKey key : values()) {
+                if (key.name().equalsIgnoreCase(value)) {
+                    return Optional.of(key);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Keyset position in a sorted listing: the sort value and name of the last server
+     * returned. It doesn't depend on any snapshot, so paging continues correctly when servers
+     * move, join or disappear between requests.
+     */
+    public record Cursor(SortKey key, double sortValue, String serverName) {
+
+        public String encode() {
+            String raw = key.name() + "|" + sortValue + "|" + serverName;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Cursor decode(String encoded) {
+            String[] parts = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8).split("\\|", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new Cursor(SortKey.valueOf(parts[0]), Double.parseDouble(parts[1]), parts[2]);
+        }
+    }
+
+    /**
+     * One page of servers and the cursor for the next page, or null on the last page
+     */
+    public record Page(List<ServerListService.ServerStatus> servers, Cursor nextCursor) {
+        public boolean hasMore() {
+            return nextCursor != null;
+        }
+    }
+
+    private ClusterSnapshot(long version, LinkedHashMap<String, ServerListService.ServerStatus> statuses) {
+        this.version = version;
+        this.byName = Collections.unmodifiableMap(statuses);
+        this.servers = List.copyOf(statuses.values());
+        this.createdAtMillis = System.currentTimeMillis();
+
+        int enabled = 0;
+        int online = 0;
+        int healthy = 0;
+        int players = 0;
+        int maxPlayers = 0;
+        for (ServerListService.ServerStatus status : servers) {
+            if (status.isEnabled()) {
+                enabled++;
+                players += status.getCurrentPlayers();
+            }
+            if ("online".equals(status.getStatus())) {
+                online++;
+                maxPlayers += status.getMaxPlayers();
+            }
+            if (status.isHealthy()) {
+                healthy++;
+            }
+        }
+        this.enabledServers = enabled;
+        this.onlineServers = online;
+        this.healthyServers = healthy;
+        this.totalPlayers = players;
+        this.totalMaxPlayers = maxPlayers;
+    }
+
+    static ClusterSnapshot empty() {
+        return EMPTY;
+    }
+
+    ClusterSnapshot withAll(List<ServerListService.ServerStatus> statuses) {
+        LinkedHashMap<String, ServerListService.ServerStatus> next = new LinkedHashMap<>();
+        boolean changed = statuses.size() != byName.size();
+        for (ServerListService.ServerStatus status : statuses) {
+            ServerListService.ServerStatus existing = byName.get(status.getName());
+            if (status.isEquivalentTo(existing)) {
+                next.put(existing.getName(), existing);
+            } else {
+                next.put(status.getName(), status);
+                changed = true;
+            }
+        }
+        if (!changed && List.copyOf(next.keySet()).equals(List.copyOf(byName.keySet()))) {
+            return this;
+        }
+        return new ClusterSnapshot(version + 1, next);
+    }
+
+    ClusterSnapshot withStatus(ServerListService.ServerStatus status) {
+        if (status.isEquivalentTo(byName.get(status.getName()))) {
+            return this;
+        }
+        LinkedHashMap<String, ServerListService.ServerStatus> next = new LinkedHashMap<>(byName);
+        next.put(status.getName(), status);
+        return new ClusterSnapshot(version + 1, next);
+    }
+
+    ClusterSnapshot retainOnly(Predicate<String> keep) {
+        LinkedHashMap<String, ServerListService.ServerStatus> next = new LinkedHashMap<>(byName);
+        if (!next.keySet().removeIf(name -> !keep.test(name))) {
+            return this;
+        }
+        return new ClusterSnapshot(version + 1, next);
+    }
+
+    ClusterSnapshot cleared() {
+        return new ClusterSnapshot(version + 1, new LinkedHashMap<>());
+    }
+
+    public long getVersion() { return version; }
+    public List<ServerListService.ServerStatus> getServers() { return servers; }
+    public Optional<ServerListService.ServerStatus> get(String serverName) { return Optional.ofNullable(byName.get(serverName)); }
+    public boolean contains(String serverName) { return byName.containsKey(serverName); }
+    public int getTotalServers() { return servers.size(); }
+    public int getEnabledServers() { return enabledServers; }
+    public int getDisabledServers() { return servers.size() - enabledServers; }
+    public int getOnlineServers() { return onlineServers; }
+    public int getOfflineServers() { return enabledServers - onlineServers; }
+    public int getHealthyServers() { return healthyServers; }
+    public int getTotalPlayers() { return totalPlayers; }
+    public int getTotalMaxPlayers() { return totalMaxPlayers; }
+    public long getCreatedAtMillis() { return createdAtMillis; }
+
+    public double getNetworkLoadPercentage() {
+        return totalMaxPlayers > 0 ? (double) totalPlayers / totalMaxPlayers * 100.0 : 0.0;
+    }
+
+    /**
+     * Walks the sorted view for {@code key} starting just past {@code after} and returns up
+     * to {@code limit} servers matching {@code filter}. The view is sorted once per snapshot
+     * and reused by every later request against the same version; the cursor is located by
+     * binary search, so it works against any snapshot.
+     */
+    public Page page(SortKey key, boolean descending, Predicate<ServerListService.ServerStatus> filter,
+                     Cursor after, int limit) {
+        if (after != null && after.key() != key) {
+            throw new IllegalArgumentException("Cursor was issued for sort " + after.key().name().toLowerCase());
+        }
+        List<ServerListService.ServerStatus> ordered = sortedView(key);
+        int size = ordered.size();
+
+        int start = descending ? size - 1 : 0;
+        if (after != null) {
+            // First server sorting after the cursor; descending pages continue just before it
+            int firstAfter = firstAfter(key, ordered, after);
+            start = descending ? seekBefore(key, ordered, after, firstAfter) : firstAfter;
+        }
+
+        List<ServerListService.ServerStatus> results = new ArrayList<>(Math.min(limit, size));
+        int step = descending ? -1 : 1;
+        for (int i = start; i >= 0 && i < size; i += step) {
+            ServerListService.ServerStatus status = ordered.get(i);
+            if (!filter.test(status)) {
+                continue;
+            }
+            if (results.size() == limit) {
+                return new Page(results, key.cursorAt(results.get(results.size() - 1)));
+            }
+            results.add(status);
+        }
+        return new Page(results, null);
+    }
+
+    private static int firstAfter(SortKey key, List<ServerListService.ServerStatus> ordered, Cursor cursor) {
+        int low = 0;
+        int high = ordered.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key.compare(ordered.get(mid), cursor) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Last index sorting strictly before the cursor, given the first index after it
+     */
+    private static int seekBefore(SortKey key, List<ServerListService.ServerStatus> ordered, Cursor cursor, int firstAfter) {
+        int index = firstAfter - 1;
+        // At most one server sits exactly on the cursor, since names are unique
+        if (index >= 0 && key.compare(ordered.get(index), cursor) == 0) {
+            index--;
+        }
+        return index;
+    }
+
+    private List<ServerListService.ServerStatus> sortedView(SortKey key) {
+        List<ServerListService.ServerStatus> view = sortedViews.get(key.ordinal());
+        if (view != null) {
+            return view;
+        }
+
+        List<ServerListService.ServerStatus> ordered = new ArrayList<>(servers);
+        ordered.sort(key.comparator);
+        // A racing thread may build the same view; either copy is equally valid
+        sortedViews.compareAndSet(key.ordinal(), null, List.copyOf(ordered));
+        return sortedViews.get(key.ordinal());
+    }
+
+    public List<ServerListService.ServerStatus> getOnlineServerList() {
+        List<ServerListService.ServerStatus> online = new ArrayList<>(onlineServers);
+        for (ServerListService.ServerStatus status : servers) {
+            if ("online".equals(status.getStatus())) {
+                online.add(status);
+            }
+        }
+        return online;
+    }
+}
@@ -0,0 +1,250 @@
+package com.mckube.javaplugin.services;
+
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.player.PlayerChooseInitialServerEvent;
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LoadBalancerService {
+
+    public static final String LEAST_LOADED = "least-loaded";
+    public static final String POWER_OF_TWO = "power-of-two";
+    public static final String WEIGHTED = "weighted";
+
+    private static final double LATENCY_CEILING_MS = 500.0;
+    private static final double MAX_TPS = 20.0;
+
+    private final ProxyServer server;
+    private final ServerListService serverListService;
+    private final MetricsService metricsService;
+    private final Logger logger;
+    private LogsService logsService;
+
+    private final Map<String, SelectionStrategy> strategies = new LinkedHashMap<>();
+    private volatile String defaultStrategy = POWER_OF_TWO;
+    private final AtomicLong selections = new AtomicLong();
+    private final AtomicLong noCandidate = new AtomicLong();
+    private final AtomicLong initialServerRoutes = new AtomicLong();
+
+    /**
+     * Picks one backend out of the eligible candidates. Candidates arrive sorted by score,
+     * lowest (least loaded) first, and are never empty.
+     */
+    public interface SelectionStrategy {
+        Candidate select(List<Candidate> candidates);
+    }
+
+    /**
+     * A backend eligible for new players. {@code score} runs from 0 (idle) to 1 (saturated).
+     */
+    public record Candidate(ServerListService.ServerStatus status, MetricsData metrics, double score) {
+        public String getName() {
+            return status.getName();
+        }
+    }
+
+    public record Selection(Candidate candidate, String strategy, int candidateCount) {}
+
+    public LoadBalancerService(ProxyServer server, ServerListService serverListService,
+                               MetricsService metricsService, Logger logger) {
+        this.server = server;
+        this.serverListService = serverListService;
+        this.metricsService = metricsService;
+        this.logger = logger;
+
+        registerStrategy(LEAST_LOADED, candidates -> candidates.get(0));
+        registerStrategy(POWER_OF_TWO, LoadBalancerService::powerOfTwoChoices);
+        registerStrategy(WEIGHTED, LoadBalancerService::weightedByHeadroom);
+    }
+
+    public void setLogsService(LogsService logsService) {
+        this.logsService = logsService;
+    }
+
+    public synchronized void registerStrategy(String name, SelectionStrategy strategy) {
+        strategies.put(name, strategy);
+    }
+
+    public synchronized Set<String> getStrategyNames() {
+        return Set.copyOf(strategies.keySet());
+    }
+
+    public String getDefaultStrategy() {
+        return defaultStrategy;
+    }
+
+    public synchronized void setDefaultStrategy(String name) {
+        if (!strategies.containsKey(name)) {
+            throw new IllegalArgumentException("Unknown balancing strategy: " + name);
+        }
+        defaultStrategy = name;
+    }
+
+    public Optional<Selection> select(Set<String> excludedServers) {
+        return select(defaultStrategy, excludedServers);
+    }
+
+    public Optional<Selection> select(String strategyName, Set<String> excludedServers) {
+        SelectionStrategy strategy;
+        synchronized (this) {
+            strategy = strategies.get(strategyName);
+        }
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown balancing strategy: " + strategyName);
+        }
+
+        List<Candidate> candidates = getCandidates(excludedServers);
+        if (candidates.isEmpty()) {
+            noCandidate.incrementAndGet();
+            return Optional.empty();
+        }
+
+        selections.incrementAndGet();
+        return Optional.of(new Selection(strategy.select(candidates), strategyName, candidates.size()));
+    }
+
+    /**
+     * Enabled, online, healthy backends with free slots and a closed circuit, scored and
+     * sorted. Queue servers are never candidates.
+     */
+    public List<Candidate> getCandidates(Set<String> excludedServers) {
+        Map<String, MetricsData> metrics = metricsService.getAllMetrics();
+        List<Candidate> candidates = new ArrayList<>();
+
+        for (ServerListService.ServerStatus status : serverListService.getSnapshot().getServers()) {
+            if (excludedServers.contains(status.getName())
+                    || QueueListService.isQueueServer(status.getName())
+                    || !status.isHealthy()
+                    || status.getCircuitState() != ServerListService.CircuitState.CLOSED
+                    || (status.getMaxPlayers() > 0 && status.getCurrentPlayers() >= status.getMaxPlayers())) {
+                continue;
+            }
+
+            // Pushes are matched by server name first, falling back to the host address
+            String metricsIp = Optional.ofNullable(metricsService.getServerIpByName(status.getName()))
+                    .orElse(status.getHost());
+            MetricsData data = metrics.get(metricsIp);
+            if (data != null && metricsService.isStale(metricsIp)) {
+                data = null;
+            }
+            candidates.add(new Candidate(status, data, score(status, data)));
+        }
+
+        candidates.sort(Comparator.comparingDouble(Candidate::score).thenComparing(Candidate::getName));
+        return candidates;
+    }
+
+    static double score(ServerListService.ServerStatus status, MetricsData metrics) {
+        double playerLoad = status.getMaxPlayers() > 0
+                ? Math.min(1.0, (double) status.getCurrentPlayers() / status.getMaxPlayers())
+                : 0.5;
+        double latencyLoad = Math.min(1.0, Math.max(0, status.getLatency()) / LATENCY_CEILING_MS);
+
+        if (metrics == null) {
+            return 0.75 * playerLoad + 0.25 * latencyLoad;
+        }
+
+        double tpsLoad = 1.0 - Math.min(MAX_TPS, Math.max(0, metrics.tps())) / MAX_TPS;
+        double cpuLoad = Math.min(1.0, Math.max(0, metrics.processCpuPercent()) / 100.0);
+        return 0.5 * playerLoad + 0.2 * tpsLoad + 0.15 * cpuLoad + 0.15 * latencyLoad;
+    }
+
+    private static Candidate powerOfTwoChoices(List<Candidate> candidates) {
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        // Two random picks keep the herd off the single least-loaded server between refreshes
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        Candidate a = candidates.get(first);
+        Candidate b = candidates.get(second);
+        return a.score() <= b.score() ? a : b;
+    }
+
+    private static Candidate weightedByHeadroom(List<Candidate> candidates) {
+        double total = 0;
+        for (Candidate candidate : candidates) {
+            total += headroom(candidate);
+        }
+        double roll = ThreadLocalRandom.current().nextDouble() * total;
+        for (Candidate candidate : candidates) {
+            roll -= headroom(candidate);
+            if (roll <= 0) {
+                return candidate;
+            }
+        }
+        return candidates.get(candidates.size() - 1);
+    }
+
+    private static double headroom(Candidate candidate) {
+        return Math.max(0.01, 1.0 - candidate.score());
+    }
+
+    /**
+     * Routes new players to the best backend unless Velocity already sent them to a queue
+     * server, in which case the queue decides where they go.
+     */
+    @Subscribe
+    public void onChooseInitialServer(PlayerChooseInitialServerEvent event) {
+        Optional<RegisteredServer> initial = event.getInitialServer();
+        if (initial.isPresent() && QueueListService.isQueueServer(initial.get().getServerInfo().getName())) {
+            return;
+        }
+
+        Optional<Selection> selection = select(Set.of());
+        if (selection.isEmpty()) {
+            logger.debug("No eligible backend for {}, keeping Velocity's initial server", event.getPlayer().getUsername());
+            return;
+        }
+
+        String target = selection.get().candidate().getName();
+        Optional<RegisteredServer> targetServer = server.getServer(target);
+        if (targetServer.isEmpty()) {
+            return;
+        }
+
+        event.setInitialServer(targetServer.get());
+        initialServerRoutes.incrementAndGet();
+        logger.info("Routing {} to {} (strategy: {}, score: {})", event.getPlayer().getUsername(), target,
+                selection.get().strategy(), String.format("%.3f", selection.get().candidate().score()));
+
+        if (logsService != null) {
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("strategy", selection.get().strategy());
+            metadata.put("score", selection.get().candidate().score());
+            metadata.put("candidates", selection.get().candidateCount());
+            metadata.put("previous_initial_server", initial.map(s -> s.getServerInfo().getName()).orElse(null));
+            logsService.logServerConnect("Player routed by load balancer",
+                    event.getPlayer().getUsername(),
+                    event.getPlayer().getUniqueId().toString(),
+                    target,
+                    metadata);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("default_strategy", defaultStrategy);
+        stats.put("strategies", getStrategyNames());
+        stats.put("selections", selections.get());
+        stats.put("no_candidate", noCandidate.get());
+        stats.put("initial_server_routes", initialServerRoutes.get());
+        return stats;
+    }
+}
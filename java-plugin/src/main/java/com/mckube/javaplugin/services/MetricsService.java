@@ -1,20 +1,205 @@
 package com.mckube.javaplugin.services;
 
+import com.mckube.javaplugin.utils.TimerWheel;
 import org.slf4j.Logger;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import com.mckube.javaplugin.services.MetricsData;
 
 public class MetricsService {
 
+    // Spigot backends push every 40 ticks
+    public static final Duration DEFAULT_PUSH_INTERVAL = Duration.ofSeconds(2);
+    public static final int DEFAULT_STALE_AFTER_MISSED_INTERVALS = 3;
+    public static final Duration DEFAULT_EXPIRY_TTL = Duration.ofMinutes(5);
+    private static final long SWEEP_TICK_MS = 1000;
+    private static final int SWEEP_SLOTS = 64;
+    private static final int SNAPSHOT_MAGIC = 0x4D4B4D53; // "MKMS"
+    private static final int SNAPSHOT_FORMAT = 1;
+
     private final Map<String, MetricsData> metricsMap = new ConcurrentHashMap<>();
+    private final Map<String, Liveness> livenessMap = new ConcurrentHashMap<>();
+    private final Map<String, String> serverIpsByName = new ConcurrentHashMap<>();
+    private final TimerWheel<TimerEntry> expiryWheel = new TimerWheel<>(SWEEP_SLOTS, SWEEP_TICK_MS);
+    private final ScheduledExecutorService sweeper;
+    private final AtomicLong version = new AtomicLong();
+    private final Duration pushInterval;
+    private final int staleAfterMissedIntervals;
+    private final long staleAfterMillis;
+    private final long expiryTtlMillis;
     private final Logger logger;
     private LogsService logsService;
 
+    private record TimerEntry(String serverIp, long generation) {}
+
+    private static class Liveness {
+        volatile long lastReceivedNanos;
+        volatile Instant lastReceivedAt;
+        volatile String serverName;
+        volatile boolean stale;
+        long timerGeneration;
+        final TrendState trends = new TrendState();
+
+        long ageMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastReceivedNanos);
+        }
+    }
+
+    /**
+     * 1/5/15 minute exponentially weighted averages, decayed by the real gap between
+     * samples so missed pushes don't skew the windows
+     */
+    private static final class LoadAverage {
+        double m1;
+        double m5;
+        double m15;
+        boolean primed;
+
+        void update(double value, double dtSeconds) {
+            if (!primed) {
+                m1 = m5 = m15 = value;
+                primed = true;
+                return;
+            }
+            m1 += (value - m1) * alpha(dtSeconds, 60);
+            m5 += (value - m5) * alpha(dtSeconds, 300);
+            m15 += (value - m15) * alpha(dtSeconds, 900);
+        }
+
+        static double alpha(double dtSeconds, double windowSeconds) {
+            return 1.0 - Math.exp(-dtSeconds / windowSeconds);
+        }
+    }
+
+    private static final class TrendState {
+        // Rates are smoothed over 5 minutes so GC sawtooth cancels out and only net growth remains
+        private static final double RATE_WINDOW_SECONDS = 300;
+
+        final LoadAverage tps = new LoadAverage();
+        final LoadAverage processCpu = new LoadAverage();
+        final LoadAverage systemCpu = new LoadAverage();
+        final LoadAverage memoryPercent = new LoadAverage();
+        final LoadAverage memoryUsedGB = new LoadAverage();
+        double memoryGrowthMBPerMin;
+        double tpsTrendPerMin;
+        double lastMemoryUsedGB;
+        double lastTps;
+        long lastSampleNanos;
+        long samples;
+
+        synchronized void update(MetricsData data, long nowNanos) {
+            double dtSeconds = samples == 0 ? 0 : (nowNanos - lastSampleNanos) / 1_000_000_000.0;
+            if (samples > 0 && dtSeconds <= 0) {
+                return;
+            }
+
+            tps.update(data.tps(), dtSeconds);
+            processCpu.update(data.processCpuPercent(), dtSeconds);
+            systemCpu.update(data.systemCpuPercent(), dtSeconds);
+            memoryPercent.update(data.memoryPercent(), dtSeconds);
+            memoryUsedGB.update(data.memoryUsedGB(), dtSeconds);
+
+            if (samples > 0) {
+                double minutes = dtSeconds / 60.0;
+                double memoryRate = (data.memoryUsedGB() - lastMemoryUsedGB) * 1024.0 / minutes;
+                double tpsRate = (data.tps() - lastTps) / minutes;
+                double a = LoadAverage.alpha(dtSeconds, RATE_WINDOW_SECONDS);
+                memoryGrowthMBPerMin += (memoryRate - memoryGrowthMBPerMin) * a;
+                tpsTrendPerMin += (tpsRate - tpsTrendPerMin) * a;
+            }
+
+            lastMemoryUsedGB = data.memoryUsedGB();
+            lastTps = data.tps();
+            lastSampleNanos = nowNanos;
+            samples++;
+        }
+
+        synchronized void write(DataOutputStream out) throws IOException {
+            out.writeLong(samples);
+            for (LoadAverage average : new LoadAverage[]{tps, processCpu, systemCpu, memoryPercent, memoryUsedGB}) {
+                out.writeBoolean(average.primed);
+                out.writeDouble(average.m1);
+                out.writeDouble(average.m5);
+                out.writeDouble(average.m15);
+            }
+            out.writeDouble(memoryGrowthMBPerMin);
+            out.writeDouble(tpsTrendPerMin);
+            out.writeDouble(lastMemoryUsedGB);
+            out.writeDouble(lastTps);
+        }
+
+        synchronized void read(DataInputStream in, long lastSampleNanos) throws IOException {
+            samples = in.readLong();
+            for (LoadAverage average : new LoadAverage[]{tps, processCpu, systemCpu, memoryPercent, memoryUsedGB}) {
+                average.primed = in.readBoolean();
+                average.m1 = in.readDouble();
+                average.m5 = in.readDouble();
+                average.m15 = in.readDouble();
+            }
+            memoryGrowthMBPerMin = in.readDouble();
+            tpsTrendPerMin = in.readDouble();
+            lastMemoryUsedGB = in.readDouble();
+            lastTps = in.readDouble();
+            this.lastSampleNanos = lastSampleNanos;
+        }
+
+        synchronized MetricsTrends snapshot() {
+            return new MetricsTrends(
+                    samples,
+                    tps.m1, tps.m5, tps.m15,
+                    processCpu.m1, processCpu.m5, processCpu.m15,
+                    systemCpu.m1, systemCpu.m5, systemCpu.m15,
+                    memoryPercent.m1, memoryPercent.m5, memoryPercent.m15,
+                    memoryUsedGB.m1, memoryUsedGB.m5, memoryUsedGB.m15,
+                    memoryGrowthMBPerMin,
+                    tpsTrendPerMin
+            );
+        }
+    }
+
+    /**
+     * Push-cadence liveness of a single backend, as seen by the proxy clock
+     */
+    public record MetricsLiveness(String serverIp, String serverName, Instant lastReceived,
+                                  long ageMillis, boolean stale) {}
+
     public MetricsService(Logger logger) {
+        this(logger, DEFAULT_PUSH_INTERVAL, DEFAULT_STALE_AFTER_MISSED_INTERVALS, DEFAULT_EXPIRY_TTL);
+    }
+
+    public MetricsService(Logger logger, Duration pushInterval, int staleAfterMissedIntervals, Duration expiryTtl) {
         this.logger = logger;
+        this.pushInterval = pushInterval;
+        this.staleAfterMissedIntervals = Math.max(1, staleAfterMissedIntervals);
+        this.staleAfterMillis = pushInterval.toMillis() * this.staleAfterMissedIntervals;
+        this.expiryTtlMillis = Math.max(expiryTtl.toMillis(), staleAfterMillis);
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "MC-Kube-Metrics-Sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleAtFixedRate(this::sweep, SWEEP_TICK_MS, SWEEP_TICK_MS, TimeUnit.MILLISECONDS);
+
+        logger.info("MetricsService initialized (stale after {} missed {}ms intervals, expiry TTL: {}s)",
+                this.staleAfterMissedIntervals, pushInterval.toMillis(), expiryTtlMillis / 1000);
     }
 
     public void setLogsService(LogsService logsService) {
@@ -27,9 +212,37 @@ public class MetricsService {
 
     public void putMetrics(String serverIp, MetricsData data, String serverName) {
         try {
-            metricsMap.put(serverIp, data);
+            boolean[] recovered = {false};
+            livenessMap.compute(serverIp, (ip, liveness) -> {
+                boolean isNew = liveness == null;
+                if (isNew) {
+                    liveness = new Liveness();
+                }
+                long now = System.nanoTime();
+                metricsMap.put(ip, data);
+                liveness.trends.update(data, now);
+                liveness.lastReceivedNanos = now;
+                liveness.lastReceivedAt = Instant.now();
+                if (serverName != null && !serverName.trim().isEmpty()) {
+                    liveness.serverName = serverName;
+                    serverIpsByName.put(serverName, ip);
+                }
+                if (liveness.stale) {
+                    liveness.stale = false;
+                    recovered[0] = true;
+                }
+                if (isNew || recovered[0]) {
+                    scheduleCheck(ip, liveness, staleAfterMillis);
+                }
+                return liveness;
+            });
+            version.incrementAndGet();
             logger.debug("Updated metrics for server: {}", serverIp);
 
+            if (recovered[0]) {
+                logger.info("Metrics for server {} resumed after being stale", serverIp);
+            }
+
             if (logsService != null) {
                 Map<String, Object> metadata = new HashMap<>();
                 metadata.put("server_ip", serverIp);
@@ -150,10 +363,340 @@ public class MetricsService {
         return new HashMap<>(metricsMap);
     }
 
+    public boolean isStale(String serverIp) {
+        MetricsLiveness liveness = getLiveness(serverIp);
+        return liveness == null || liveness.stale();
+    }
+
+    public MetricsLiveness getLiveness(String serverIp) {
+        Liveness liveness = livenessMap.get(serverIp);
+        return liveness != null ? toMetricsLiveness(serverIp, liveness) : null;
+    }
+
+    /**
+     * Push liveness for a backend by its proxy server name, or null if it has never pushed
+     * under that name. Names are resolved through the latest push from each IP.
+     */
+    public MetricsLiveness getLivenessByServerName(String serverName) {
+        String serverIp = getServerIpByName(serverName);
+        return serverIp != null ? getLiveness(serverIp) : null;
+    }
+
+    public String getServerIpByName(String serverName) {
+        if (serverName == null) {
+            return null;
+        }
+
+        String serverIp = serverIpsByName.get(serverName);
+        if (serverIp != null) {
+            Liveness liveness = livenessMap.get(serverIp);
+            if (liveness != null && serverName.equals(liveness.serverName)) {
+                return serverIp;
+            }
+            serverIpsByName.remove(serverName, serverIp);
+        }
+        // Pushes and snapshot restores both index by name, so a miss needs no scan
+        return null;
+    }
+
+    public MetricsTrends getTrends(String serverIp) {
+        Liveness liveness = livenessMap.get(serverIp);
+        return liveness != null ? liveness.trends.snapshot() : null;
+    }
+
+    public Map<String, MetricsTrends> getAllTrends() {
+        Map<String, MetricsTrends> result = new HashMap<>();
+        livenessMap.forEach((ip, liveness) -> result.put(ip, liveness.trends.snapshot()));
+        return result;
+    }
+
+    public Map<String, MetricsLiveness> getAllLiveness() {
+        Map<String, MetricsLiveness> result = new HashMap<>();
+        livenessMap.forEach((ip, liveness) -> result.put(ip, toMetricsLiveness(ip, liveness)));
+        return result;
+    }
+
+    public Duration getPushInterval() {
+        return pushInterval;
+    }
+
+    public int getStaleAfterMissedIntervals() {
+        return staleAfterMissedIntervals;
+    }
+
+    public long getExpiryTtlMillis() {
+        return expiryTtlMillis;
+    }
+
+    private MetricsLiveness toMetricsLiveness(String serverIp, Liveness liveness) {
+        long age = liveness.ageMillis();
+        // The sweep only runs once per tick, so derive staleness from the age as well
+        boolean stale = liveness.stale || age >= staleAfterMillis;
+        return new MetricsLiveness(serverIp, liveness.serverName, liveness.lastReceivedAt, age, stale);
+    }
+
+    private void scheduleCheck(String serverIp, Liveness liveness, long delayMillis) {
+        liveness.timerGeneration++;
+        expiryWheel.schedule(new TimerEntry(serverIp, liveness.timerGeneration), delayMillis);
+    }
+
+    private void sweep() {
+        try {
+            List<MetricsLiveness> newlyStale = new ArrayList<>();
+            List<MetricsLiveness> expired = new ArrayList<>();
+
+            for (TimerEntry entry : expiryWheel.advance()) {
+                livenessMap.computeIfPresent(entry.serverIp(), (ip, liveness) -> {
+                    if (liveness.timerGeneration != entry.generation()) {
+                        return liveness;
+                    }
+
+                    long age = liveness.ageMillis();
+                    if (age >= expiryTtlMillis) {
+                        metricsMap.remove(ip);
+                        expired.add(toMetricsLiveness(ip, liveness));
+                        return null;
+                    }
+
+                    if (age >= staleAfterMillis) {
+                        if (!liveness.stale) {
+                            liveness.stale = true;
+                            newlyStale.add(toMetricsLiveness(ip, liveness));
+                        }
+                        scheduleCheck(ip, liveness, expiryTtlMillis - age);
+                    } else {
+                        scheduleCheck(ip, liveness, staleAfterMillis - age);
+                    }
+                    return liveness;
+                });
+            }
+
+            if (!newlyStale.isEmpty() || !expired.isEmpty()) {
+                version.incrementAndGet();
+            }
+
+            for (MetricsLiveness liveness : newlyStale) {
+                logger.warn("Metrics for server {} are stale ({}ms since last sample)", liveness.serverIp(), liveness.ageMillis());
+
+                if (logsService != null) {
+                    Map<String, Object> metadata = new HashMap<>();
+                    metadata.put("server_ip", liveness.serverIp());
+                    if (liveness.serverName() != null) {
+                        metadata.put("server_name", liveness.serverName());
+                    }
+                    metadata.put("last_received", String.valueOf(liveness.lastReceived()));
+                    metadata.put("age_ms", liveness.ageMillis());
+                    metadata.put("missed_intervals", liveness.ageMillis() / Math.max(1, pushInterval.toMillis()));
+
+                    String logServerName = liveness.serverName() != null ? liveness.serverName() : liveness.serverIp();
+                    logsService.logMetricsFailed("Metrics stale - backend stopped pushing samples", logServerName, metadata);
+                }
+            }
+
+            for (MetricsLiveness liveness : expired) {
+                logger.info("Expired metrics for server {} after {}ms without a sample", liveness.serverIp(), liveness.ageMillis());
+
+                if (logsService != null) {
+                    Map<String, Object> metadata = new HashMap<>();
+                    metadata.put("server_ip", liveness.serverIp());
+                    metadata.put("last_received", String.valueOf(liveness.lastReceived()));
+                    metadata.put("expiry_ttl_ms", expiryTtlMillis);
+                    metadata.put("remaining_servers", metricsMap.size());
+
+                    logsService.logSystemEvent("Metrics data expired for server", null, null, liveness.serverIp(), metadata);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Error during metrics expiry sweep: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the latest sample, liveness and trend state of every backend to a compact
+     * binary file so a restarted proxy can serve dashboards immediately
+     */
+    public int saveSnapshot(Path file) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            int written = 0;
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                // Capture pairs up front so the record count matches even if the sweep expires something mid-write
+                List<Map.Entry<Liveness, MetricsData>> entries = new ArrayList<>();
+                List<String> ips = new ArrayList<>();
+                livenessMap.forEach((ip, liveness) -> {
+                    MetricsData data = metricsMap.get(ip);
+                    if (data != null) {
+                        ips.add(ip);
+                        entries.add(Map.entry(liveness, data));
+                    }
+                });
+
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_FORMAT);
+                out.writeLong(System.currentTimeMillis());
+                out.writeInt(entries.size());
+
+                for (int i = 0; i < entries.size(); i++) {
+                    Liveness liveness = entries.get(i).getKey();
+                    out.writeUTF(ips.get(i));
+                    out.writeUTF(liveness.serverName != null ? liveness.serverName : "");
+                    out.writeLong(liveness.lastReceivedAt != null ? liveness.lastReceivedAt.toEpochMilli() : 0L);
+                    writeMetricsData(out, entries.get(i).getValue());
+                    liveness.trends.write(out);
+                    written++;
+                }
+            }
+
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Saved metrics snapshot for {} servers to {}", written, file);
+            return written;
+
+        } catch (Exception e) {
+            logger.error("Failed to save metrics snapshot to {}", file, e);
+
+            if (logsService != null) {
+                logsService.logError("Failed to save metrics snapshot", "MetricsService.saveSnapshot", e);
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Restores state written by {@link #saveSnapshot(Path)}. Entries older than the expiry
+     * TTL are dropped; the rest resume their stale/expiry timers from the saved arrival time.
+     */
+    public int loadSnapshot(Path file) {
+        if (!Files.isRegularFile(file)) {
+            logger.debug("No metrics snapshot found at {}", file);
+            return 0;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_FORMAT) {
+                logger.warn("Ignoring metrics snapshot {} with unknown format", file);
+                return 0;
+            }
+            long savedAt = in.readLong();
+            int count = in.readInt();
+
+            long nowMillis = System.currentTimeMillis();
+            long nowNanos = System.nanoTime();
+            int restored = 0;
+            int dropped = 0;
+
+            for (int i = 0; i < count; i++) {
+                String ip = in.readUTF();
+                String serverName = in.readUTF();
+                long lastReceivedMillis = in.readLong();
+                MetricsData data = readMetricsData(in);
+
+                long ageMillis = Math.max(0, nowMillis - lastReceivedMillis);
+                long lastReceivedNanos = nowNanos - TimeUnit.MILLISECONDS.toNanos(ageMillis);
+
+                Liveness liveness = new Liveness();
+                liveness.trends.read(in, lastReceivedNanos);
+
+                if (lastReceivedMillis <= 0 || ageMillis >= expiryTtlMillis) {
+                    dropped++;
+                    continue;
+                }
+
+                liveness.lastReceivedNanos = lastReceivedNanos;
+                liveness.lastReceivedAt = Instant.ofEpochMilli(lastReceivedMillis);
+                liveness.serverName = serverName.isEmpty() ? null : serverName;
+                liveness.stale = ageMillis >= staleAfterMillis;
+
+                livenessMap.compute(ip, (key, existing) -> {
+                    if (existing != null) {
+                        // A live push already arrived, it wins over the snapshot
+                        return existing;
+                    }
+                    metricsMap.put(key, data);
+                    if (liveness.serverName != null) {
+                        serverIpsByName.putIfAbsent(liveness.serverName, key);
+                    }
+                    scheduleCheck(key, liveness, liveness.stale ? expiryTtlMillis - ageMillis : staleAfterMillis - ageMillis);
+                    return liveness;
+                });
+                restored++;
+            }
+
+            version.incrementAndGet();
+            logger.info("Restored metrics snapshot for {} servers from {} (saved {}s ago, {} expired)",
+                    restored, file, Math.max(0, nowMillis - savedAt) / 1000, dropped);
+
+            if (logsService != null) {
+                Map<String, Object> metadata = new HashMap<>();
+                metadata.put("servers_restored", restored);
+                metadata.put("servers_expired", dropped);
+                metadata.put("snapshot_saved_at", Instant.ofEpochMilli(savedAt).toString());
+                logsService.logSystemEvent("Metrics snapshot restored", metadata);
+            }
+            return restored;
+
+        } catch (Exception e) {
+            logger.error("Failed to load metrics snapshot from {}", file, e);
+
+            if (logsService != null) {
+                logsService.logError("Failed to load metrics snapshot", "MetricsService.loadSnapshot", e);
+            }
+            return 0;
+        }
+    }
+
+    private static void writeMetricsData(DataOutputStream out, MetricsData data) throws IOException {
+        out.writeUTF(data.serverIp() != null ? data.serverIp() : "");
+        out.writeUTF(data.timestamp() != null ? data.timestamp() : "");
+        out.writeDouble(data.systemCpuPercent());
+        out.writeDouble(data.processCpuPercent());
+        out.writeDouble(data.memoryUsedGB());
+        out.writeDouble(data.memoryMaxGB());
+        out.writeDouble(data.memoryPercent());
+        out.writeDouble(data.systemMemoryUsedGB());
+        out.writeDouble(data.systemMemoryTotalGB());
+        out.writeDouble(data.systemMemoryPercent());
+        out.writeDouble(data.tps());
+        out.writeDouble(data.tpsPercent());
+    }
+
+    private static MetricsData readMetricsData(DataInputStream in) throws IOException {
+        return new MetricsData(
+                in.readUTF(),
+                in.readUTF(),
+                in.readDouble(),
+                in.readDouble(),
+                in.readDouble(),
+                in.readDouble(),
+                in.readDouble(),
+                in.readDouble(),
+                in.readDouble(),
+                in.readDouble(),
+                in.readDouble(),
+                in.readDouble()
+        );
+    }
+
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Monotonic counter bumped whenever a sample is stored, expires or turns stale
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
     public boolean removeMetrics(String serverIp) {
         try {
             MetricsData removed = metricsMap.remove(serverIp);
+            livenessMap.remove(serverIp);
             boolean wasRemoved = removed != null;
+            if (wasRemoved) {
+                version.incrementAndGet();
+            }
 
             if (wasRemoved) {
                 logger.info("Removed metrics for server: {}", serverIp);
@@ -193,6 +736,10 @@ public class MetricsService {
         try {
             int clearedCount = metricsMap.size();
             metricsMap.clear();
+            livenessMap.clear();
+            serverIpsByName.clear();
+            expiryWheel.clear();
+            version.incrementAndGet();
             logger.info("Cleared all metrics data ({} servers)", clearedCount);
 
             if (logsService != null) {
@@ -0,0 +1,22 @@
+package com.mckube.javaplugin.services;
+
+public record MetricsTrends(
+        long samples,
+        double tps1m,
+        double tps5m,
+        double tps15m,
+        double processCpu1m,
+        double processCpu5m,
+        double processCpu15m,
+        double systemCpu1m,
+        double systemCpu5m,
+        double systemCpu15m,
+        double memoryPercent1m,
+        double memoryPercent5m,
+        double memoryPercent15m,
+        double memoryUsedGB1m,
+        double memoryUsedGB5m,
+        double memoryUsedGB15m,
+        double memoryGrowthMBPerMin,
+        double tpsTrendPerMin
+) {}
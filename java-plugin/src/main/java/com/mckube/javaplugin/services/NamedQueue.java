@@ -0,0 +1,225 @@
+package com.mckube.javaplugin.services;
+
+import com.mckube.javaplugin.utils.WeightedFairQueue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * State of one queue: its weighted-fair ordering, its own lock, the view published for
+ * readers and the bookkeeping for its coalesced boss bar repaints. Queues never share a
+ * lock, so joins on one game mode don't contend with another.
+ */
+class NamedQueue {
+
+    /**
+     * Immutable copy of the queue in effective order, republished with every repaint so
+     * reads never touch the lock
+     */
+    record View(List<UUID> order, Map<String, Integer> tierCounts) {}
+
+    record DisplayedPosition(int position, float progress) {}
+
+    private final String name;
+    private final String targetGroup;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final WeightedFairQueue<UUID> queue = new WeightedFairQueue<>();
+
+    private final Map<UUID, Long> enqueuedAt = new ConcurrentHashMap<>();
+    private volatile View view;
+    private volatile int size;
+
+    private final AtomicBoolean repaintScheduled = new AtomicBoolean();
+    private volatile long lastRepaintNanos;
+    final Map<UUID, DisplayedPosition> displayedPositions = new ConcurrentHashMap<>();
+
+    /**
+     * @param targetGroup backends this queue drains into: servers named exactly this or
+     *                    prefixed with it and a dash, or any backend when null
+     */
+    NamedQueue(String name, String targetGroup, List<QueueListService.PriorityTier> tiers, long repaintIntervalMillis) {
+        this.name = name;
+        this.targetGroup = targetGroup;
+        for (QueueListService.PriorityTier tier : tiers) {
+            queue.addTier(tier.name(), tier.weight());
+        }
+        this.view = new View(List.of(), queue.getTierSizes());
+        this.lastRepaintNanos = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(repaintIntervalMillis);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getTargetGroup() {
+        return targetGroup;
+    }
+
+    boolean accepts(String serverName) {
+        return targetGroup == null
+                || serverName.equals(targetGroup)
+                || serverName.startsWith(targetGroup + "-");
+    }
+
+    boolean add(UUID playerId, String tier) {
+        lock.lock();
+        try {
+            boolean added = queue.add(playerId, tier);
+            if (added) {
+                enqueuedAt.put(playerId, System.currentTimeMillis());
+            }
+            size = queue.size();
+            return added;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Puts a player back at the place they held before a restart
+     */
+    boolean restore(QueueJournal.Entry entry) {
+        lock.lock();
+        try {
+            boolean restored = queue.restore(entry.playerId(), entry.tier(), entry.ticket());
+            if (restored) {
+                enqueuedAt.put(entry.playerId(), entry.enqueuedAt());
+            }
+            size = queue.size();
+            return restored;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Persistable form of one queued player, or null if they are not queued
+     */
+    QueueJournal.Entry entryOf(UUID playerId) {
+        lock.lock();
+        try {
+            String tier = queue.tierOf(playerId);
+            if (tier == null) {
+                return null;
+            }
+            return new QueueJournal.Entry(name, playerId, tier, queue.tagOf(playerId),
+                    enqueuedAt.getOrDefault(playerId, System.currentTimeMillis()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<QueueJournal.Entry> entries() {
+        lock.lock();
+        try {
+            List<QueueJournal.Entry> entries = new ArrayList<>(queue.size());
+            for (UUID playerId : queue.toList()) {
+                entries.add(new QueueJournal.Entry(name, playerId, queue.tierOf(playerId), queue.tagOf(playerId),
+                        enqueuedAt.getOrDefault(playerId, System.currentTimeMillis())));
+            }
+            return entries;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean remove(UUID playerId) {
+        boolean removed;
+        lock.lock();
+        try {
+            removed = queue.remove(playerId);
+            size = queue.size();
+        } finally {
+            lock.unlock();
+        }
+        if (removed) {
+            displayedPositions.remove(playerId);
+            enqueuedAt.remove(playerId);
+        }
+        return removed;
+    }
+
+    boolean contains(UUID playerId) {
+        lock.lock();
+        try {
+            return queue.contains(playerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int positionOf(UUID playerId) {
+        lock.lock();
+        try {
+            return queue.positionOf(playerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    String tierOf(UUID playerId) {
+        lock.lock();
+        try {
+            return queue.tierOf(playerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    View getView() {
+        return view;
+    }
+
+    /**
+     * Copies the live ordering under the lock and publishes it as the new view
+     */
+    List<UUID> publishView() {
+        List<UUID> order;
+        Map<String, Integer> tierCounts;
+        lock.lock();
+        try {
+            order = queue.toList();
+            tierCounts = queue.getTierSizes();
+        } finally {
+            lock.unlock();
+        }
+        view = new View(Collections.unmodifiableList(order), Collections.unmodifiableMap(tierCounts));
+        return order;
+    }
+
+    /**
+     * Marks the display dirty, returning false when a repaint is already pending
+     */
+    boolean markDirty() {
+        return repaintScheduled.compareAndSet(false, true);
+    }
+
+    void cancelRepaint() {
+        repaintScheduled.set(false);
+    }
+
+    long repaintDelayMillis(long intervalMillis) {
+        long sinceLast = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastRepaintNanos);
+        return Math.max(0, intervalMillis - sinceLast);
+    }
+
+    /**
+     * Clears the dirty flag before the queue is read, so changes made during the repaint
+     * schedule another one
+     */
+    void beginRepaint() {
+        repaintScheduled.set(false);
+        lastRepaintNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,247 @@
+package com.mckube.javaplugin.services;
+
+import org.slf4j.Logger;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ToDoubleFunction;
+
+public class PrometheusService {
+
+    private final MetricsService metricsService;
+    private final ServerListService serverListService;
+    private final QueueListService queueListService;
+    private final Logger logger;
+    private QueueAdmissionService queueAdmissionService;
+
+    private final Object renderLock = new Object();
+    private final StringBuilder buffer = new StringBuilder(8192);
+    private String cachedSamples = "";
+    private long cachedMetricsVersion = -1;
+    private long cachedStatusVersion = -1;
+    private Map<String, Integer> cachedQueueCounts = Map.of();
+
+    public PrometheusService(MetricsService metricsService, ServerListService serverListService,
+                             QueueListService queueListService, Logger logger) {
+        this.metricsService = metricsService;
+        this.serverListService = serverListService;
+        this.queueListService = queueListService;
+        this.logger = logger;
+    }
+
+    public void setQueueAdmissionService(QueueAdmissionService queueAdmissionService) {
+        this.queueAdmissionService = queueAdmissionService;
+    }
+
+    public CompletableFuture<String> scrape() {
+        return serverListService.getAllServersWithStatus().thenApply(this::render);
+    }
+
+    private String render(List<ServerListService.ServerStatus> statuses) {
+        synchronized (renderLock) {
+            long metricsVersion = metricsService.getVersion();
+            long statusVersion = serverListService.getStatusVersion();
+            Map<String, Integer> queueCounts = queueListService.getQueueCounts();
+
+            if (metricsVersion != cachedMetricsVersion
+                    || statusVersion != cachedStatusVersion
+                    || !queueCounts.equals(cachedQueueCounts)) {
+                buffer.setLength(0);
+                appendBackendMetrics(buffer);
+                appendServerStatuses(buffer, statuses);
+                appendQueue(buffer, queueCounts);
+                cachedSamples = buffer.toString();
+                cachedMetricsVersion = metricsVersion;
+                cachedStatusVersion = statusVersion;
+                cachedQueueCounts = queueCounts;
+                logger.debug("Re-rendered Prometheus samples (metrics v{}, status v{}, queue {})",
+                        metricsVersion, statusVersion, queueCounts);
+            }
+
+            // JVM gauges and admission counters move on every scrape, so only the sample section is reused
+            buffer.setLength(0);
+            buffer.append(cachedSamples);
+            appendQueueAdmission(buffer);
+            appendJvm(buffer);
+            return buffer.toString();
+        }
+    }
+
+    private void appendBackendMetrics(StringBuilder sb) {
+        Map<String, MetricsData> metrics = new TreeMap<>(metricsService.getAllMetrics());
+
+        appendBackendGauge(sb, metrics, "mckube_backend_system_cpu_percent", "Backend host CPU usage percent", MetricsData::systemCpuPercent);
+        appendBackendGauge(sb, metrics, "mckube_backend_process_cpu_percent", "Backend JVM process CPU usage percent", MetricsData::processCpuPercent);
+        appendBackendGauge(sb, metrics, "mckube_backend_memory_used_gb", "Backend JVM heap used in GB", MetricsData::memoryUsedGB);
+        appendBackendGauge(sb, metrics, "mckube_backend_memory_max_gb", "Backend JVM heap max in GB", MetricsData::memoryMaxGB);
+        appendBackendGauge(sb, metrics, "mckube_backend_memory_percent", "Backend JVM heap usage percent", MetricsData::memoryPercent);
+        appendBackendGauge(sb, metrics, "mckube_backend_system_memory_used_gb", "Backend host memory used in GB", MetricsData::systemMemoryUsedGB);
+        appendBackendGauge(sb, metrics, "mckube_backend_system_memory_total_gb", "Backend host memory total in GB", MetricsData::systemMemoryTotalGB);
+        appendBackendGauge(sb, metrics, "mckube_backend_system_memory_percent", "Backend host memory usage percent", MetricsData::systemMemoryPercent);
+        appendBackendGauge(sb, metrics, "mckube_backend_tps", "Backend ticks per second", MetricsData::tps);
+        appendBackendGauge(sb, metrics, "mckube_backend_tps_percent", "Backend ticks per second as percent of 20", MetricsData::tpsPercent);
+
+        Map<String, MetricsTrends> trends = new TreeMap<>(metricsService.getAllTrends());
+        appendTrendGauge(sb, trends, "mckube_backend_tps_avg", "Exponentially weighted backend TPS",
+                MetricsTrends::tps1m, MetricsTrends::tps5m, MetricsTrends::tps15m);
+        appendTrendGauge(sb, trends, "mckube_backend_process_cpu_percent_avg", "Exponentially weighted backend JVM CPU percent",
+                MetricsTrends::processCpu1m, MetricsTrends::processCpu5m, MetricsTrends::processCpu15m);
+        appendTrendGauge(sb, trends, "mckube_backend_memory_percent_avg", "Exponentially weighted backend heap usage percent",
+                MetricsTrends::memoryPercent1m, MetricsTrends::memoryPercent5m, MetricsTrends::memoryPercent15m);
+        appendBackendGauge(sb, trends, "mckube_backend_memory_growth_mb_per_minute", "Smoothed backend heap growth rate in MB per minute",
+                MetricsTrends::memoryGrowthMBPerMin);
+        appendBackendGauge(sb, trends, "mckube_backend_tps_trend_per_minute", "Smoothed backend TPS change per minute",
+                MetricsTrends::tpsTrendPerMin);
+
+        Map<String, MetricsService.MetricsLiveness> liveness = new TreeMap<>(metricsService.getAllLiveness());
+        appendHeader(sb, "mckube_backend_metrics_stale", "Whether the backend has missed enough metric pushes to be considered stale", "gauge");
+        for (MetricsService.MetricsLiveness entry : liveness.values()) {
+            appendSample(sb, "mckube_backend_metrics_stale", "server_ip=\"" + escapeLabel(entry.serverIp()) + "\"",
+                    entry.stale() ? 1 : 0);
+        }
+        appendHeader(sb, "mckube_backend_metrics_last_received_timestamp_seconds", "Unix time the last metrics push arrived at the proxy", "gauge");
+        for (MetricsService.MetricsLiveness entry : liveness.values()) {
+            if (entry.lastReceived() != null) {
+                appendSample(sb, "mckube_backend_metrics_last_received_timestamp_seconds",
+                        "server_ip=\"" + escapeLabel(entry.serverIp()) + "\"",
+                        entry.lastReceived().toEpochMilli() / 1000.0);
+            }
+        }
+
+        appendHeader(sb, "mckube_backend_metrics_tracked", "Number of backends with a stored metrics sample", "gauge");
+        appendSample(sb, "mckube_backend_metrics_tracked", null, metrics.size());
+    }
+
+    private <T> void appendBackendGauge(StringBuilder sb, Map<String, T> metrics, String name, String help,
+                                        ToDoubleFunction<T> value) {
+        appendHeader(sb, name, help, "gauge");
+        for (Map.Entry<String, T> entry : metrics.entrySet()) {
+            appendSample(sb, name, "server_ip=\"" + escapeLabel(entry.getKey()) + "\"",
+                    value.applyAsDouble(entry.getValue()));
+        }
+    }
+
+    private void appendTrendGauge(StringBuilder sb, Map<String, MetricsTrends> trends, String name, String help,
+                                  ToDoubleFunction<MetricsTrends> m1, ToDoubleFunction<MetricsTrends> m5,
+                                  ToDoubleFunction<MetricsTrends> m15) {
+        appendHeader(sb, name, help, "gauge");
+        for (Map.Entry<String, MetricsTrends> entry : trends.entrySet()) {
+            String ip = escapeLabel(entry.getKey());
+            appendSample(sb, name, "server_ip=\"" + ip + "\",window=\"1m\"", m1.applyAsDouble(entry.getValue()));
+            appendSample(sb, name, "server_ip=\"" + ip + "\",window=\"5m\"", m5.applyAsDouble(entry.getValue()));
+            appendSample(sb, name, "server_ip=\"" + ip + "\",window=\"15m\"", m15.applyAsDouble(entry.getValue()));
+        }
+    }
+
+    private void appendServerStatuses(StringBuilder sb, List<ServerListService.ServerStatus> statuses) {
+        List<ServerListService.ServerStatus> sorted = statuses.stream()
+                .sorted(Comparator.comparing(ServerListService.ServerStatus::getName))
+                .toList();
+
+        appendServerGauge(sb, sorted, "mckube_server_up", "Whether the backend answered its last status ping",
+                s -> "online".equals(s.getStatus()) ? 1 : 0);
+        appendServerGauge(sb, sorted, "mckube_server_enabled", "Whether the backend is enabled in the cluster",
+                s -> s.isEnabled() ? 1 : 0);
+        appendServerGauge(sb, sorted, "mckube_server_healthy", "Whether the backend is considered healthy",
+                s -> s.isHealthy() ? 1 : 0);
+        appendServerGauge(sb, sorted, "mckube_server_latency_ms", "Latency of the last status ping in milliseconds",
+                ServerListService.ServerStatus::getLatency);
+        appendServerGauge(sb, sorted, "mckube_server_players", "Players connected to the backend through the proxy",
+                ServerListService.ServerStatus::getCurrentPlayers);
+        appendServerGauge(sb, sorted, "mckube_server_max_players", "Player slots reported by the backend",
+                ServerListService.ServerStatus::getMaxPlayers);
+    }
+
+    private void appendServerGauge(StringBuilder sb, List<ServerListService.ServerStatus> statuses, String name,
+                                   String help, ToDoubleFunction<ServerListService.ServerStatus> value) {
+        appendHeader(sb, name, help, "gauge");
+        for (ServerListService.ServerStatus status : statuses) {
+            appendSample(sb, name, "server=\"" + escapeLabel(status.getName()) + "\"",
+                    value.applyAsDouble(status));
+        }
+    }
+
+    private void appendQueue(StringBuilder sb, Map<String, Integer> queueCounts) {
+        appendHeader(sb, "mckube_queue_length", "Players currently waiting in each queue", "gauge");
+        for (Map.Entry<String, Integer> entry : queueCounts.entrySet()) {
+            appendSample(sb, "mckube_queue_length", "queue=\"" + escapeLabel(entry.getKey()) + "\"", entry.getValue());
+        }
+    }
+
+    private void appendQueueAdmission(StringBuilder sb) {
+        if (queueAdmissionService == null) {
+            return;
+        }
+        appendHeader(sb, "mckube_queue_admissions_total", "Players admitted from the queue to a backend", "counter");
+        appendSample(sb, "mckube_queue_admissions_total", null, queueAdmissionService.getAdmissionCount());
+        appendHeader(sb, "mckube_queue_admission_failures_total", "Queue admissions whose connection attempt failed", "counter");
+        appendSample(sb, "mckube_queue_admission_failures_total", null, queueAdmissionService.getFailureCount());
+        appendHeader(sb, "mckube_queue_admissions_per_second", "Queue admission throughput over the last window", "gauge");
+        appendSample(sb, "mckube_queue_admissions_per_second", null, queueAdmissionService.getAdmissionsPerSecond());
+        appendHeader(sb, "mckube_queue_admission_rate_limit", "Configured queue admission rate in players per second", "gauge");
+        appendSample(sb, "mckube_queue_admission_rate_limit", null, queueAdmissionService.getAdmissionRate());
+    }
+
+    private void appendJvm(StringBuilder sb) {
+        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+
+        appendHeader(sb, "mckube_jvm_heap_used_bytes", "Proxy JVM heap used in bytes", "gauge");
+        appendSample(sb, "mckube_jvm_heap_used_bytes", null, memoryBean.getHeapMemoryUsage().getUsed());
+        appendHeader(sb, "mckube_jvm_heap_max_bytes", "Proxy JVM heap max in bytes", "gauge");
+        appendSample(sb, "mckube_jvm_heap_max_bytes", null, memoryBean.getHeapMemoryUsage().getMax());
+        appendHeader(sb, "mckube_jvm_nonheap_used_bytes", "Proxy JVM non-heap used in bytes", "gauge");
+        appendSample(sb, "mckube_jvm_nonheap_used_bytes", null, memoryBean.getNonHeapMemoryUsage().getUsed());
+        appendHeader(sb, "mckube_jvm_threads", "Proxy JVM live thread count", "gauge");
+        appendSample(sb, "mckube_jvm_threads", null, ManagementFactory.getThreadMXBean().getThreadCount());
+        appendHeader(sb, "mckube_jvm_uptime_seconds", "Proxy JVM uptime in seconds", "gauge");
+        appendSample(sb, "mckube_jvm_uptime_seconds", null, ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0);
+        appendHeader(sb, "mckube_jvm_available_processors", "Processors available to the proxy JVM", "gauge");
+        appendSample(sb, "mckube_jvm_available_processors", null, Runtime.getRuntime().availableProcessors());
+
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        appendHeader(sb, "mckube_jvm_gc_collections_total", "Garbage collections run by the proxy JVM", "counter");
+        for (GarbageCollectorMXBean gc : collectors) {
+            appendSample(sb, "mckube_jvm_gc_collections_total", "gc=\"" + escapeLabel(gc.getName()) + "\"",
+                    Math.max(0, gc.getCollectionCount()));
+        }
+        appendHeader(sb, "mckube_jvm_gc_time_seconds_total", "Time spent in garbage collection by the proxy JVM", "counter");
+        for (GarbageCollectorMXBean gc : collectors) {
+            appendSample(sb, "mckube_jvm_gc_time_seconds_total", "gc=\"" + escapeLabel(gc.getName()) + "\"",
+                    Math.max(0, gc.getCollectionTime()) / 1000.0);
+        }
+    }
+
+    private static void appendHeader(StringBuilder sb, String name, String help, String type) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void appendSample(StringBuilder sb, String name, String labels, double value) {
+        sb.append(name);
+        if (labels != null) {
+            sb.append('{').append(labels).append('}');
+        }
+        sb.append(' ').append(formatValue(value)).append('\n');
+    }
+
+    private static String formatValue(double value) {
+        if (Double.isNaN(value)) return "NaN";
+        if (value == Double.POSITIVE_INFINITY) return "+Inf";
+        if (value == Double.NEGATIVE_INFINITY) return "-Inf";
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static String escapeLabel(String value) {
+        if (value == null) return "";
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,368 @@
+package com.mckube.javaplugin.services;
+
+import com.velocitypowered.api.proxy.Player;
+import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
+import org.slf4j.Logger;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains each queue into the backends it targets whenever they have free slots. Every queue
+ * is paced by its own token bucket so a backend coming online doesn't receive the whole
+ * queue at once. Free slots are counted from the proxy's live player lists rather than the
+ * server snapshot, which may be up to a stable ping interval old, and slots stay reserved
+ * while a connect is in flight.
+ */
+public class QueueAdmissionService {
+
+    public static final double DEFAULT_ADMISSION_RATE = 2.0;
+    public static final double MAX_ADMISSION_RATE = 100.0;
+
+    private static final long TICK_INTERVAL_MS = 100;
+    private static final long CONNECT_TIMEOUT_MS = 10_000;
+    private static final long RETRY_BACKOFF_MS = 5_000;
+    private static final long RATE_WINDOW_MS = 10_000;
+
+    private final ProxyServer server;
+    private final QueueListService queueListService;
+    private final ServerListService serverListService;
+    private final LoadBalancerService loadBalancerService;
+    private final Logger logger;
+    private LogsService logsService;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "MC-Kube-Queue-Admission");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean enabled = true;
+    private volatile double admissionRate = DEFAULT_ADMISSION_RATE;
+
+    // Token buckets and rate window state, only touched on the scheduler thread
+    private final Map<String, TokenBucket> buckets = new HashMap<>();
+    private long rateWindowStartNanos = System.nanoTime();
+    private long rateWindowAdmissions;
+    private long rateWindowFailures;
+
+    private final Map<UUID, Reservation> reservations = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> retryAfterNanos = new ConcurrentHashMap<>();
+
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicLong admissions = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong noCapacityTicks = new AtomicLong();
+    private final Map<String, AtomicLong> admissionsByQueue = new ConcurrentHashMap<>();
+    private volatile double admissionsPerSecond;
+    private volatile double failuresPerSecond;
+
+    private static final class TokenBucket {
+        double tokens;
+        long lastRefillNanos = System.nanoTime();
+
+        /**
+         * Refills at {@code rate} per second, capped at one second worth so a pause doesn't
+         * turn into a burst
+         */
+        void refill(long now, double rate) {
+            tokens = Math.min(Math.max(1.0, rate), tokens + rate * (now - lastRefillNanos) / 1_000_000_000.0);
+            lastRefillNanos = now;
+        }
+    }
+
+    /**
+     * A slot claimed on {@code server} by a connect still in flight. Once it completes the
+     * player shows up in the server's live player list instead.
+     */
+    private record Reservation(String server) {}
+
+    public QueueAdmissionService(ProxyServer server, QueueListService queueListService,
+                                 ServerListService serverListService, LoadBalancerService loadBalancerService,
+                                 Logger logger) {
+        this.server = server;
+        this.queueListService = queueListService;
+        this.serverListService = serverListService;
+        this.loadBalancerService = loadBalancerService;
+        this.logger = logger;
+    }
+
+    public void setLogsService(LogsService logsService) {
+        this.logsService = logsService;
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                tick();
+            } catch (Exception e) {
+                logger.warn("Queue admission tick failed: {}", e.getMessage());
+            }
+        }, TICK_INTERVAL_MS, TICK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        logger.info("Queue admission started at {} players/sec", admissionRate);
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        logger.info("Queue admission {}", enabled ? "enabled" : "paused");
+    }
+
+    public double getAdmissionRate() {
+        return admissionRate;
+    }
+
+    public void setAdmissionRate(double playersPerSecond) {
+        if (!(playersPerSecond > 0) || playersPerSecond > MAX_ADMISSION_RATE) {
+            throw new IllegalArgumentException("Admission rate must be between 0 and " + MAX_ADMISSION_RATE + " players/sec");
+        }
+        this.admissionRate = playersPerSecond;
+        logger.info("Queue admission rate set to {} players/sec", playersPerSecond);
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        sampleRates(now);
+        expireRetries(now);
+
+        double rate = admissionRate;
+        Map<String, Integer> reserved = null;
+        for (String queueName : queueListService.getQueueNames()) {
+            TokenBucket bucket = buckets.computeIfAbsent(queueName, n -> new TokenBucket());
+            bucket.refill(now, rate);
+            if (!enabled || bucket.tokens < 1.0) {
+                continue;
+            }
+
+            // Offline players holding a restored place and players backing off are skipped, so
+            // the scan can run deep; it walks the published view and never takes the queue lock
+            List<UUID> order = queueListService.getQueueOrder(queueName);
+            if (order.isEmpty()) {
+                continue;
+            }
+            if (reserved == null) {
+                reserved = countReservations();
+            }
+            drain(queueName, order, bucket, reserved, now);
+        }
+    }
+
+    /**
+     * Admits players from {@code candidates} in order while tokens last, stopping early once
+     * no backend has room
+     */
+    private void drain(String queueName, List<UUID> candidates, TokenBucket bucket, Map<String, Integer> reserved, long now) {
+        for (UUID playerId : candidates) {
+            if (bucket.tokens < 1.0) {
+                return;
+            }
+            // The view may trail the live queue, so players who left since are skipped
+            if (reservations.containsKey(playerId)
+                    || !queueName.equals(queueListService.getPlayerQueueName(playerId))) {
+                continue;
+            }
+            Long retryAt = retryAfterNanos.get(playerId);
+            if (retryAt != null && now < retryAt) {
+                continue;
+            }
+            Optional<Player> player = server.getPlayer(playerId);
+            if (player.isEmpty() || !isOnQueueServer(player.get(), queueName)) {
+                continue;
+            }
+
+            Optional<LoadBalancerService.Selection> selection =
+                    loadBalancerService.select(excludedServers(queueName, reserved));
+            if (selection.isEmpty()) {
+                noCapacityTicks.incrementAndGet();
+                return;
+            }
+
+            String target = selection.get().candidate().getName();
+            Optional<RegisteredServer> targetServer = server.getServer(target);
+            if (targetServer.isEmpty()) {
+                continue;
+            }
+
+            bucket.tokens -= 1.0;
+            reserved.merge(target, 1, Integer::sum);
+            admit(player.get(), queueName, targetServer.get());
+        }
+    }
+
+    /**
+     * Queued players still finishing a connect elsewhere, e.g. their initial login, leave
+     * the queue once it completes and must not be admitted meanwhile
+     */
+    private static boolean isOnQueueServer(Player player, String queueName) {
+        return player.getCurrentServer()
+                .map(connection -> connection.getServerInfo().getName().equals(queueName))
+                .orElse(false);
+    }
+
+    /**
+     * Backends outside the queue's target group plus every backend with no free slot left,
+     * counting players connected right now and connects still in flight
+     */
+    private Set<String> excludedServers(String queueName, Map<String, Integer> reserved) {
+        Set<String> excluded = new HashSet<>();
+        for (ServerListService.ServerStatus status : serverListService.getSnapshot().getServers()) {
+            String name = status.getName();
+            if (!queueListService.isTargetOf(queueName, name)) {
+                excluded.add(name);
+                continue;
+            }
+            if (status.getMaxPlayers() <= 0) {
+                continue;
+            }
+            int connected = server.getServer(name)
+                    .map(registered -> registered.getPlayersConnected().size())
+                    .orElse(status.getCurrentPlayers());
+            if (connected + reserved.getOrDefault(name, 0) >= status.getMaxPlayers()) {
+                excluded.add(name);
+            }
+        }
+        return excluded;
+    }
+
+    private void admit(Player player, String queueName, RegisteredServer target) {
+        UUID playerId = player.getUniqueId();
+        String targetName = target.getServerInfo().getName();
+        reservations.put(playerId, new Reservation(targetName));
+        attempts.incrementAndGet();
+
+        player.createConnectionRequest(target).connect()
+                .orTimeout(CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> {
+                    if (error == null && result.isSuccessful()) {
+                        onAdmitted(player, queueName, targetName);
+                    } else {
+                        String reason = error != null
+                                ? error.getClass().getSimpleName()
+                                : result.getStatus().name();
+                        onAdmissionFailed(player, queueName, targetName, reason);
+                    }
+                });
+    }
+
+    private void onAdmitted(Player player, String queueName, String targetName) {
+        admissions.incrementAndGet();
+        admissionsByQueue.computeIfAbsent(queueName, n -> new AtomicLong()).incrementAndGet();
+        retryAfterNanos.remove(player.getUniqueId());
+        reservations.remove(player.getUniqueId());
+        logger.info("Admitted {} from queue {} to {}", player.getUsername(), queueName, targetName);
+
+        if (logsService != null) {
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("from_server", queueName);
+            metadata.put("requested_by", "queue_admission");
+            metadata.put("admission_rate", admissionRate);
+            logsService.logTransferCompleted("Player admitted from queue",
+                    player.getUsername(),
+                    player.getUniqueId().toString(),
+                    targetName,
+                    metadata);
+        }
+    }
+
+    private void onAdmissionFailed(Player player, String queueName, String targetName, String reason) {
+        failures.incrementAndGet();
+        reservations.remove(player.getUniqueId());
+        // Players only leave the queue once connected, so a failed connect keeps their place.
+        // They are skipped for a while so one bad backend can't stall the head.
+        if (queueListService.getPlayerQueueName(player.getUniqueId()) != null) {
+            retryAfterNanos.put(player.getUniqueId(),
+                    System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(RETRY_BACKOFF_MS));
+        }
+        logger.warn("Failed to admit {} from queue {} to {}: {}", player.getUsername(), queueName, targetName, reason);
+
+        if (logsService != null) {
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("target_server", targetName);
+            metadata.put("queue_name", queueName);
+            metadata.put("error", reason);
+            metadata.put("requested_by", "queue_admission");
+            metadata.put("retry_after_ms", RETRY_BACKOFF_MS);
+            logsService.logTransferFailed("Queue admission failed",
+                    player.getUsername(),
+                    targetName,
+                    metadata);
+        }
+    }
+
+    private Map<String, Integer> countReservations() {
+        Map<String, Integer> reserved = new HashMap<>();
+        for (Reservation reservation : reservations.values()) {
+            reserved.merge(reservation.server(), 1, Integer::sum);
+        }
+        return reserved;
+    }
+
+    private void expireRetries(long now) {
+        retryAfterNanos.values().removeIf(retryAt -> now >= retryAt);
+    }
+
+    private void sampleRates(long now) {
+        long elapsedNanos = now - rateWindowStartNanos;
+        if (elapsedNanos < TimeUnit.MILLISECONDS.toNanos(RATE_WINDOW_MS)) {
+            return;
+        }
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        long admitted = admissions.get();
+        long failed = failures.get();
+        admissionsPerSecond = (admitted - rateWindowAdmissions) / seconds;
+        failuresPerSecond = (failed - rateWindowFailures) / seconds;
+        rateWindowAdmissions = admitted;
+        rateWindowFailures = failed;
+        rateWindowStartNanos = now;
+    }
+
+    public long getAdmissionCount() {
+        return admissions.get();
+    }
+
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    public double getAdmissionsPerSecond() {
+        return admissionsPerSecond;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("admission_rate", admissionRate);
+        stats.put("attempts", attempts.get());
+        stats.put("admissions", admissions.get());
+        stats.put("failures", failures.get());
+        stats.put("admissions_per_second", admissionsPerSecond);
+        stats.put("failures_per_second", failuresPerSecond);
+        stats.put("in_flight", reservations.size());
+        stats.put("backing_off", retryAfterNanos.size());
+        stats.put("no_capacity_ticks", noCapacityTicks.get());
+
+        Map<String, Long> byQueue = new TreeMap<>();
+        admissionsByQueue.forEach((queue, count) -> byQueue.put(queue, count.get()));
+        stats.put("admissions_by_queue", byQueue);
+        return stats;
+    }
+}
@@ -0,0 +1,291 @@
+package com.mckube.javaplugin.services;
+
+import org.slf4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Durable queue order: a compact snapshot of every entry plus an append-only journal of the
+ * joins and leaves since. All file IO runs on one thread, so event handlers only enqueue a
+ * record. The journal is folded into a fresh snapshot periodically and whenever it grows
+ * past {@code COMPACT_AFTER_RECORDS}.
+ */
+public class QueueJournal {
+
+    private static final int SNAPSHOT_MAGIC = 0x4D4B5153; // "MKQS"
+    private static final int JOURNAL_MAGIC = 0x4D4B514A; // "MKQJ"
+    private static final int FORMAT = 1;
+    private static final byte OP_JOIN = 1;
+    private static final byte OP_LEAVE = 2;
+    private static final long FLUSH_INTERVAL_MS = 1000;
+    private static final long COMPACT_INTERVAL_SECONDS = 60;
+    private static final int COMPACT_AFTER_RECORDS = 10_000;
+
+    /**
+     * One queued player. {@code ticket} is the weighted-fair tag that fixes their place.
+     */
+    public record Entry(String queue, UUID playerId, String tier, double ticket, long enqueuedAt) {}
+
+    /**
+     * State rebuilt from disk and the time of the last write that went into it
+     */
+    public record Recovered(List<Entry> entries, long lastWrittenAt) {}
+
+    private final Path snapshotFile;
+    private final Path journalFile;
+    private final Logger logger;
+
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "MC-Kube-Queue-Journal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only touched on the writer thread
+    private DataOutputStream journal;
+    private int journalRecords;
+    private Supplier<List<Entry>> stateSupplier;
+    private boolean sealed;
+
+    public QueueJournal(Path snapshotFile, Path journalFile, Logger logger) {
+        this.snapshotFile = snapshotFile;
+        this.journalFile = journalFile;
+        this.logger = logger;
+    }
+
+    /**
+     * Reads the snapshot and replays the journal on top of it. Replay is idempotent, and a
+     * record torn by a crash ends the journal instead of failing the load.
+     */
+    public Recovered load() throws IOException {
+        Map<UUID, Entry> entries = new LinkedHashMap<>();
+        long lastWrittenAt = 0;
+
+        if (Files.isRegularFile(snapshotFile)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+                if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != FORMAT) {
+                    logger.warn("Ignoring queue snapshot {} with unknown format", snapshotFile);
+                } else {
+                    lastWrittenAt = in.readLong();
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        Entry entry = readEntry(in);
+                        entries.put(entry.playerId(), entry);
+                    }
+                }
+            }
+        }
+
+        if (Files.isRegularFile(journalFile)) {
+            int replayed = 0;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(journalFile)))) {
+                if (in.readInt() != JOURNAL_MAGIC || in.readInt() != FORMAT) {
+                    logger.warn("Ignoring queue journal {} with unknown format", journalFile);
+                } else {
+                    while (true) {
+                        byte op = in.readByte();
+                        long writtenAt = in.readLong();
+                        if (op == OP_JOIN) {
+                            Entry entry = readEntry(in);
+                            entries.putIfAbsent(entry.playerId(), entry);
+                        } else if (op == OP_LEAVE) {
+                            entries.remove(new UUID(in.readLong(), in.readLong()));
+                        } else {
+                            logger.warn("Queue journal {} has an unknown record type {}, stopping replay", journalFile, op);
+                            break;
+                        }
+                        lastWrittenAt = Math.max(lastWrittenAt, writtenAt);
+                        replayed++;
+                    }
+                }
+            } catch (EOFException e) {
+                // End of journal, or a record cut short by a crash
+            }
+            logger.debug("Replayed {} queue journal records from {}", replayed, journalFile);
+        }
+
+        return new Recovered(new ArrayList<>(entries.values()), lastWrittenAt);
+    }
+
+    /**
+     * Folds the recovered state into a fresh snapshot and starts journaling. The supplier
+     * provides the live queue state for every later compaction.
+     */
+    public void start(Supplier<List<Entry>> stateSupplier) {
+        writer.execute(() -> {
+            this.stateSupplier = stateSupplier;
+            compact();
+        });
+        writer.scheduleWithFixedDelay(this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        writer.scheduleWithFixedDelay(this::compact, COMPACT_INTERVAL_SECONDS, COMPACT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public void recordJoin(Entry entry) {
+        append(out -> {
+            out.writeByte(OP_JOIN);
+            out.writeLong(System.currentTimeMillis());
+            writeEntry(out, entry);
+        });
+    }
+
+    public void recordLeave(UUID playerId) {
+        append(out -> {
+            out.writeByte(OP_LEAVE);
+            out.writeLong(System.currentTimeMillis());
+            out.writeLong(playerId.getMostSignificantBits());
+            out.writeLong(playerId.getLeastSignificantBits());
+        });
+    }
+
+    /**
+     * Writes a final snapshot of the current state and waits for it, e.g. before players are
+     * disconnected for a shutdown. Nothing is written afterwards, so the queues emptying
+     * during shutdown can't overwrite the checkpoint.
+     */
+    public void checkpoint() {
+        try {
+            writer.submit(() -> {
+                compact();
+                sealed = true;
+                closeJournal();
+                return null;
+            }).get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            logger.warn("Queue checkpoint did not complete: {}", e.getMessage());
+        }
+    }
+
+    public void close() {
+        try {
+            writer.submit(() -> {
+                closeJournal();
+                return null;
+            }).get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            logger.warn("Queue journal did not close cleanly: {}", e.getMessage());
+        }
+        writer.shutdownNow();
+    }
+
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private void append(RecordWriter record) {
+        try {
+            writer.execute(() -> {
+                if (journal == null) {
+                    return;
+                }
+                try {
+                    record.write(journal);
+                    if (++journalRecords >= COMPACT_AFTER_RECORDS) {
+                        compact();
+                    }
+                } catch (IOException e) {
+                    logger.warn("Failed to append to queue journal: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the last checkpoint already holds the state worth keeping
+        }
+    }
+
+    private void flush() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.flush();
+        } catch (IOException e) {
+            logger.warn("Failed to flush queue journal: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the snapshot with the live state and truncates the journal. Records queued
+     * behind this call may repeat changes the snapshot already holds, which replay tolerates.
+     */
+    private void compact() {
+        if (stateSupplier == null || sealed) {
+            return;
+        }
+        try {
+            List<Entry> entries = stateSupplier.get();
+            Files.createDirectories(snapshotFile.toAbsolutePath().getParent());
+            Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(FORMAT);
+                out.writeLong(System.currentTimeMillis());
+                out.writeInt(entries.size());
+                for (Entry entry : entries) {
+                    writeEntry(out, entry);
+                }
+            }
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            closeJournal();
+            journal = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(journalFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)));
+            journal.writeInt(JOURNAL_MAGIC);
+            journal.writeInt(FORMAT);
+            journal.flush();
+            journalRecords = 0;
+
+            logger.debug("Compacted queue journal into snapshot of {} entries", entries.size());
+        } catch (Exception e) {
+            logger.error("Failed to write queue snapshot to {}", snapshotFile, e);
+        }
+    }
+
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close queue journal: {}", e.getMessage());
+        }
+        journal = null;
+    }
+
+    private static void writeEntry(DataOutputStream out, Entry entry) throws IOException {
+        out.writeUTF(entry.queue());
+        out.writeLong(entry.playerId().getMostSignificantBits());
+        out.writeLong(entry.playerId().getLeastSignificantBits());
+        out.writeUTF(entry.tier());
+        out.writeDouble(entry.ticket());
+        out.writeLong(entry.enqueuedAt());
+    }
+
+    private static Entry readEntry(DataInputStream in) throws IOException {
+        String queue = in.readUTF();
+        UUID playerId = new UUID(in.readLong(), in.readLong());
+        String tier = in.readUTF();
+        double ticket = in.readDouble();
+        long enqueuedAt = in.readLong();
+        return new Entry(queue, playerId, tier, ticket, enqueuedAt);
+    }
+}
@@ -4,18 +4,25 @@ import com.velocitypowered.api.event.Subscribe;
 import com.velocitypowered.api.event.connection.PostLoginEvent;
 import com.velocitypowered.api.event.connection.DisconnectEvent;
 import com.velocitypowered.api.event.connection.LoginEvent;
+import com.velocitypowered.api.event.player.PlayerChooseInitialServerEvent;
+import com.velocitypowered.api.event.player.ServerConnectedEvent;
 import com.velocitypowered.api.event.player.ServerPreConnectEvent;
+import com.velocitypowered.api.event.proxy.ProxyPreShutdownEvent;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.proxy.server.RegisteredServer;
 import net.kyori.adventure.bossbar.BossBar;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.slf4j.Logger;
 
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class QueueListService {
@@ -24,22 +31,183 @@ public class QueueListService {
     private final Logger logger;
     private LogsService logsService;
 
-    private final Deque<UUID> queueOrder = new ConcurrentLinkedDeque<>();
-    private final Set<UUID> queueSet = ConcurrentHashMap.newKeySet();
+    private final List<PriorityTier> priorityTiers;
+    private final Map<String, NamedQueue> queues = new ConcurrentHashMap<>();
+    private final Map<UUID, NamedQueue> playerQueues = new ConcurrentHashMap<>();
     private final Map<UUID, BossBar> playerBossBars = new ConcurrentHashMap<>();
-    private final ReentrantLock queueLock = new ReentrantLock();
 
-    private static final String QUEUE_SERVER_NAME = "queue";
+    private QueueJournal journal;
+    private volatile boolean shuttingDown;
+    // Restored players hold their place until the deadline, then reconciliation drops them
+    private final Map<UUID, Long> restoreDeadlines = new ConcurrentHashMap<>();
+    private final Set<UUID> pendingRestoreRoutes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Players join this queue on login. Further queues are backends named
+     * {@code queue-<group>}, which drain into the servers of that group.
+     */
+    public static final String DEFAULT_QUEUE = "queue";
+    private static final String QUEUE_SERVER_PREFIX = "queue-";
+
+    /**
+     * Tiers are matched in order; the first whose permission the player holds wins, and a
+     * tier without a permission matches everyone
+     */
+    public static final List<PriorityTier> DEFAULT_PRIORITY_TIERS = List.of(
+            new PriorityTier("vip", "mckube.queue.vip", 4.0),
+            new PriorityTier("default", null, 1.0)
+    );
+    private static final long BOSS_BAR_REPAINT_INTERVAL_MS = 250;
+    private static final int BOSS_BAR_PROGRESS_STEPS = 100;
+    private static final int MAX_CACHED_POSITION_COMPONENTS = 10_000;
+    private static final long RECONCILE_INTERVAL_SECONDS = 60;
+    private static final long RESTORE_GRACE_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final long MAX_RESTORE_DOWNTIME_MS = TimeUnit.MINUTES.toMillis(30);
+
+    private final ScheduledExecutorService displayExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "MC-Kube-Queue-Display");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Integer, Component> positionComponents = new ConcurrentHashMap<>();
+
+    public record PriorityTier(String name, String permission, double weight) {}
 
     public QueueListService(ProxyServer server, Logger logger) {
+        this(server, logger, DEFAULT_PRIORITY_TIERS);
+    }
+
+    public QueueListService(ProxyServer server, Logger logger, List<PriorityTier> priorityTiers) {
+        if (priorityTiers.isEmpty() || priorityTiers.get(priorityTiers.size() - 1).permission() != null) {
+            throw new IllegalArgumentException("The last priority tier must not require a permission");
+        }
         this.server = server;
         this.logger = logger;
+        this.priorityTiers = List.copyOf(priorityTiers);
+        queueFor(DEFAULT_QUEUE);
+    }
+
+    public void start() {
+        for (RegisteredServer registered : server.getAllServers()) {
+            String name = registered.getServerInfo().getName();
+            if (isQueueServer(name)) {
+                queueFor(name);
+            }
+        }
+        logger.info("Queues active: {}", getQueueNames());
+
+        // DisconnectEvent handles the common case; this only catches players it missed
+        displayExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                cleanupDisconnectedPlayers();
+            } catch (Exception e) {
+                logger.warn("Queue reconciliation failed: {}", e.getMessage());
+            }
+        }, RECONCILE_INTERVAL_SECONDS, RECONCILE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public static boolean isQueueServer(String serverName) {
+        return DEFAULT_QUEUE.equals(serverName) || serverName.startsWith(QUEUE_SERVER_PREFIX);
+    }
+
+    private NamedQueue queueFor(String name) {
+        return queues.computeIfAbsent(name, n -> new NamedQueue(n,
+                n.startsWith(QUEUE_SERVER_PREFIX) ? n.substring(QUEUE_SERVER_PREFIX.length()) : null,
+                priorityTiers, BOSS_BAR_REPAINT_INTERVAL_MS));
     }
 
     public void setLogsService(LogsService logsService) {
         this.logsService = logsService;
     }
 
+    /**
+     * Restores the queue order saved before the last shutdown or crash and starts journaling
+     * every join and leave. Must run before the service is registered for events. Restored
+     * players keep their place for {@code RESTORE_GRACE_MS}; anyone who hasn't reconnected
+     * by then is dropped by reconciliation.
+     */
+    public int enablePersistence(Path snapshotFile, Path journalFile) {
+        journal = new QueueJournal(snapshotFile, journalFile, logger);
+        int restored = 0;
+
+        try {
+            QueueJournal.Recovered recovered = journal.load();
+            long downtime = System.currentTimeMillis() - recovered.lastWrittenAt();
+
+            if (recovered.entries().isEmpty()) {
+                logger.debug("No saved queue order to restore");
+            } else if (downtime > MAX_RESTORE_DOWNTIME_MS) {
+                logger.info("Discarding saved queue order of {} players, proxy was down for {}s",
+                        recovered.entries().size(), downtime / 1000);
+            } else {
+                restored = restore(recovered.entries());
+                logger.info("Restored queue order for {} players (saved {}s ago), holding places for {}s",
+                        restored, Math.max(0, downtime) / 1000, RESTORE_GRACE_MS / 1000);
+
+                if (logsService != null) {
+                    Map<String, Object> metadata = new HashMap<>();
+                    metadata.put("players_restored", restored);
+                    metadata.put("downtime_seconds", Math.max(0, downtime) / 1000);
+                    metadata.put("grace_seconds", RESTORE_GRACE_MS / 1000);
+                    metadata.put("queue_counts", getQueueCounts());
+                    logsService.logSystemEvent("Queue order restored after restart", metadata);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Failed to restore queue order from {}", snapshotFile, e);
+
+            if (logsService != null) {
+                logsService.logError("Failed to restore queue order", "QueueListService.enablePersistence", e);
+            }
+        }
+
+        journal.start(this::persistedEntries);
+        return restored;
+    }
+
+    private int restore(List<QueueJournal.Entry> entries) {
+        List<QueueJournal.Entry> ordered = new ArrayList<>(entries);
+        ordered.sort(Comparator.comparingDouble(QueueJournal.Entry::ticket));
+        Set<String> knownTiers = priorityTiers.stream().map(PriorityTier::name).collect(Collectors.toSet());
+        long deadline = System.currentTimeMillis() + RESTORE_GRACE_MS;
+        int restored = 0;
+
+        for (QueueJournal.Entry entry : ordered) {
+            if (!knownTiers.contains(entry.tier()) || !isQueueServer(entry.queue())) {
+                continue;
+            }
+            NamedQueue queue = queueFor(entry.queue());
+            if (queue.restore(entry)) {
+                playerQueues.put(entry.playerId(), queue);
+                restoreDeadlines.put(entry.playerId(), deadline);
+                restored++;
+            }
+        }
+        queues.values().forEach(this::updateAllBossBars);
+        return restored;
+    }
+
+    private List<QueueJournal.Entry> persistedEntries() {
+        List<QueueJournal.Entry> entries = new ArrayList<>();
+        for (NamedQueue queue : queues.values()) {
+            entries.addAll(queue.entries());
+        }
+        return entries;
+    }
+
+    /**
+     * Players are disconnected after this event, so the order is checkpointed now and the
+     * leaves that follow are not journaled
+     */
+    @Subscribe
+    public void onProxyPreShutdown(ProxyPreShutdownEvent event) {
+        shuttingDown = true;
+        if (journal != null) {
+            journal.checkpoint();
+            logger.info("Queue order checkpointed for {} players", getTotalQueueCount());
+        }
+    }
+
     @Subscribe
     public void onPlayerConnect(LoginEvent event) {
         logger.info("=== LoginEvent triggered for: {} ===", event.getPlayer().getUsername());
@@ -62,14 +230,27 @@ public class QueueListService {
 
         logger.info("=== PostLoginEvent triggered for: {} ===", player.getUsername());
 
-        boolean added = addToQueueIfAbsent(playerId);
+        NamedQueue existing = playerQueues.get(playerId);
+        NamedQueue queue = existing != null ? existing : queueFor(DEFAULT_QUEUE);
+        boolean added = existing == null && addToQueueIfAbsent(player, queue);
+        boolean restored = existing != null && restoreDeadlines.remove(playerId) != null;
+        if (restored) {
+            pendingRestoreRoutes.add(playerId);
+            logger.info("Player {} reconnected after restart, restored to position {} in queue {}",
+                    player.getUsername(), queue.positionOf(playerId), queue.getName());
+            player.sendMessage(Component.text("Welcome back! Your place in the queue has been restored.")
+                    .color(NamedTextColor.GREEN));
+        }
         if (added) {
-            logger.info("Player {} added to queue", player.getUsername());
+            logger.info("Player {} added to queue {} (tier: {})", player.getUsername(), queue.getName(),
+                    queue.tierOf(playerId));
 
             if (logsService != null) {
                 Map<String, Object> metadata = new HashMap<>();
-                metadata.put("queue_position", getPlayerQueuePosition(playerId));
-                metadata.put("queue_size", queueSet.size());
+                metadata.put("queue_name", queue.getName());
+                metadata.put("queue_position", queue.positionOf(playerId));
+                metadata.put("queue_size", queue.size());
+                metadata.put("queue_tier", queue.tierOf(playerId));
                 metadata.put("ip_address", player.getRemoteAddress().getAddress().getHostAddress());
                 logsService.logQueueJoin("Player added to queue",
                         player.getUsername(),
@@ -78,12 +259,14 @@ public class QueueListService {
             }
         } else {
             logger.info("Player {} already in queue (re-login?)", player.getUsername());
+            queue = playerQueues.getOrDefault(playerId, queue);
 
             if (logsService != null) {
                 Map<String, Object> metadata = new HashMap<>();
-                metadata.put("queue_position", getPlayerQueuePosition(playerId));
-                metadata.put("queue_size", queueSet.size());
-                metadata.put("reason", "already_in_queue");
+                metadata.put("queue_name", queue.getName());
+                metadata.put("queue_position", queue.positionOf(playerId));
+                metadata.put("queue_size", queue.size());
+                metadata.put("reason", restored ? "restored_after_restart" : "already_in_queue");
                 logsService.logPlayerReconnect("Player reconnected while in queue",
                         player.getUsername(),
                         playerId.toString(),
@@ -91,21 +274,23 @@ public class QueueListService {
             }
         }
 
-        int position = getPlayerQueuePosition(playerId);
-
-        player.sendMessage(Component.text("You have been added to the queue! Your position is " + position)
-                .color(NamedTextColor.GOLD));
-
-        BossBar bossBar = BossBar.bossBar(
-                Component.text("Queue Position: " + position).color(NamedTextColor.GOLD),
-                1f,
-                BossBar.Color.YELLOW,
-                BossBar.Overlay.PROGRESS
-        );
-        playerBossBars.put(playerId, bossBar);
-        player.showBossBar(bossBar);
+        showQueueBossBar(player, queue);
+    }
 
-        updateAllBossBars();
+    /**
+     * Sends players whose place was restored back to their queue server. Runs after the load
+     * balancer so it gets the last word.
+     */
+    @Subscribe(priority = (short) -100)
+    public void onChooseInitialServer(PlayerChooseInitialServerEvent event) {
+        UUID playerId = event.getPlayer().getUniqueId();
+        if (!pendingRestoreRoutes.remove(playerId)) {
+            return;
+        }
+        NamedQueue queue = playerQueues.get(playerId);
+        if (queue != null) {
+            server.getServer(queue.getName()).ifPresent(event::setInitialServer);
+        }
     }
 
     @Subscribe(priority = (short) 0)
@@ -120,60 +305,100 @@ public class QueueListService {
         logger.info("=== ServerPreConnectEvent: {} trying to connect to {} ===",
                 player.getUsername(), targetServer);
 
-        if (targetServer.equals(QUEUE_SERVER_NAME) && !contains(playerId)) {
-            boolean added = addToQueueIfAbsent(playerId);
+        // Queue membership only changes once the connect completes, see onServerConnected
+        NamedQueue current = playerQueues.get(playerId);
+        if (isQueueServer(targetServer) && (current == null || !current.getName().equals(targetServer))) {
+            logger.info("Player {} is moving to queue {}, current queue {} is kept until connected",
+                    player.getUsername(), targetServer, current != null ? current.getName() : "none");
+        }
+    }
+
+    /**
+     * Queue membership follows the server the player actually ended up on. Connecting to a
+     * queue server moves them into that queue, connecting to a backend takes them out; a
+     * denied, failed or timed-out connect leaves them at their place in the current queue.
+     */
+    @Subscribe
+    public void onServerConnected(ServerConnectedEvent event) {
+        Player player = event.getPlayer();
+        UUID playerId = player.getUniqueId();
+        String targetServer = event.getServer().getServerInfo().getName();
+        NamedQueue current = playerQueues.get(playerId);
+
+        if (isQueueServer(targetServer) && (current == null || !current.getName().equals(targetServer))) {
+            if (current != null) {
+                removePlayerFromQueue(playerId, "switching to queue " + targetServer);
+            }
+            NamedQueue queue = queueFor(targetServer);
+            boolean added = addToQueueIfAbsent(player, queue);
             if (added) {
-                logger.info("Player {} transferred to queue server and added to queue", player.getUsername());
+                logger.info("Player {} transferred to queue server and added to queue {}", player.getUsername(), queue.getName());
                 if (logsService != null) {
                     Map<String, Object> metadata = new HashMap<>();
-                    metadata.put("queue_position", getPlayerQueuePosition(playerId));
-                    metadata.put("queue_size", queueSet.size());
+                    metadata.put("queue_name", queue.getName());
+                    metadata.put("queue_position", queue.positionOf(playerId));
+                    metadata.put("queue_size", queue.size());
+                    metadata.put("queue_tier", queue.tierOf(playerId));
                     metadata.put("ip_address", player.getRemoteAddress().getAddress().getHostAddress());
                     logsService.logQueueJoin("Player transferred to queue server and added to queue",
                             player.getUsername(),
                             playerId.toString(),
                             metadata);
                 }
-                int position = getPlayerQueuePosition(playerId);
-                player.sendMessage(Component.text("You have been added to the queue! Your position is " + position)
-                        .color(NamedTextColor.GOLD));
-                BossBar bossBar = BossBar.bossBar(
-                        Component.text("Queue Position: " + position).color(NamedTextColor.GOLD),
-                        1f,
-                        BossBar.Color.YELLOW,
-                        BossBar.Overlay.PROGRESS
-                );
-                playerBossBars.put(playerId, bossBar);
-                player.showBossBar(bossBar);
-                updateAllBossBars();
+                showQueueBossBar(player, queue);
             }
+            return;
         }
 
-        if (!targetServer.equals(QUEUE_SERVER_NAME) && contains(playerId)) {
+        if (!isQueueServer(targetServer) && current != null) {
             if (logsService != null) {
                 Map<String, Object> metadata = new HashMap<>();
                 metadata.put("from_queue", true);
-                metadata.put("queue_position", getPlayerQueuePosition(playerId));
-                metadata.put("queue_size_before", queueSet.size());
-                logsService.logQueueLeave("Player leaving queue to connect to server",
+                metadata.put("queue_name", current.getName());
+                metadata.put("queue_position", current.positionOf(playerId));
+                metadata.put("queue_size_before", current.size());
+                logsService.logQueueLeave("Player left queue after connecting to server",
                         player.getUsername(),
                         playerId.toString(),
                         metadata);
             }
 
-            removePlayerFromQueue(playerId, "successfully connecting to " + targetServer);
-            player.sendMessage(Component.text("Connecting you to server: " + targetServer)
+            removePlayerFromQueue(playerId, "connected to " + targetServer);
+            player.sendMessage(Component.text("Connected to server: " + targetServer)
                     .color(NamedTextColor.GREEN));
         }
     }
 
+    private void showQueueBossBar(Player player, NamedQueue queue) {
+        int position = queue.positionOf(player.getUniqueId());
+
+        player.sendMessage(Component.text("You have been added to the queue! Your position is " + position)
+                .color(NamedTextColor.GOLD));
+
+        BossBar bossBar = BossBar.bossBar(
+                positionComponent(position),
+                1f,
+                BossBar.Color.YELLOW,
+                BossBar.Overlay.PROGRESS
+        );
+        BossBar previous = playerBossBars.put(player.getUniqueId(), bossBar);
+        if (previous != null) {
+            player.hideBossBar(previous);
+        }
+        player.showBossBar(bossBar);
+
+        updateAllBossBars(queue);
+    }
+
     @Subscribe
     public void onPlayerDisconnect(DisconnectEvent event) {
         UUID playerId = event.getPlayer().getUniqueId();
-        if (contains(playerId)) {
+        NamedQueue queue = playerQueues.get(playerId);
+        if (queue != null) {
             if (logsService != null) {
                 Map<String, Object> metadata = new HashMap<>();
-                metadata.put("queue_position", getPlayerQueuePosition(playerId));
+                metadata.put("queue_name", queue.getName());
+                metadata.put("queue_position", queue.positionOf(playerId));
                 metadata.put("disconnect_reason", "player_left_proxy");
                 logsService.logQueueLeave("Player disconnected while in queue",
                         event.getPlayer().getUsername(),
@@ -184,38 +409,42 @@ public class QueueListService {
         }
     }
 
-    private boolean addToQueueIfAbsent(UUID uuid) {
-        queueLock.lock();
-        try {
-            if (queueSet.add(uuid)) {
-                queueOrder.addLast(uuid);
-                return true;
+    private boolean addToQueueIfAbsent(Player player, NamedQueue queue) {
+        // Permission checks stay outside the queue lock
+        String tier = resolveTier(player);
+        boolean added = queue.add(player.getUniqueId(), tier);
+        if (added) {
+            playerQueues.put(player.getUniqueId(), queue);
+            if (journal != null) {
+                QueueJournal.Entry entry = queue.entryOf(player.getUniqueId());
+                if (entry != null) {
+                    journal.recordJoin(entry);
+                }
+            }
+        }
+        return added;
+    }
+
+    private String resolveTier(Player player) {
+        for (PriorityTier tier : priorityTiers) {
+            if (tier.permission() == null || player.hasPermission(tier.permission())) {
+                return tier.name();
             }
-            return false;
-        } finally {
-            queueLock.unlock();
         }
+        return priorityTiers.get(priorityTiers.size() - 1).name();
     }
 
     private boolean contains(UUID uuid) {
-        return queueSet.contains(uuid);
+        return playerQueues.containsKey(uuid);
     }
 
     private void removePlayerFromQueue(UUID playerId, String reason) {
-        boolean removed;
-        queueLock.lock();
-        try {
-            removed = queueSet.remove(playerId);
-            if (removed) {
-                queueOrder.remove(playerId);
-            }
-        } finally {
-            queueLock.unlock();
-        }
-
-        if (!removed) {
+        NamedQueue queue = playerQueues.remove(playerId);
+        pendingRestoreRoutes.remove(playerId);
+        if (queue == null || !queue.remove(playerId)) {
             return;
         }
+        journalLeave(playerId);
 
         BossBar bossBar = playerBossBars.remove(playerId);
         if (bossBar != null) {
@@ -226,9 +455,17 @@ public class QueueListService {
                 .map(Player::getUsername)
                 .orElse(playerId.toString());
 
-        logger.info("Player {} removed from queue: {}", nameOrId, reason);
+        logger.info("Player {} removed from queue {}: {}", nameOrId, queue.getName(), reason);
 
-        updateAllBossBars();
+        updateAllBossBars(queue);
+    }
+
+    private void journalLeave(UUID playerId) {
+        restoreDeadlines.remove(playerId);
+        // Shutdown disconnects everyone; the pre-shutdown checkpoint keeps their places
+        if (journal != null && !shuttingDown) {
+            journal.recordLeave(playerId);
+        }
     }
 
     public boolean removePlayerFromQueueName(String playerName) {
@@ -296,114 +533,267 @@ public class QueueListService {
         return wasInQueue;
     }
 
+    /**
+     * Effective position of the player in whichever queue they are in, or -1
+     */
     public int getPlayerQueuePosition(UUID playerId) {
-        queueLock.lock();
-        try {
-            if (!queueSet.contains(playerId)) {
-                return -1;
-            }
-            int index = 0;
-            for (UUID u : queueOrder) {
-                if (u.equals(playerId)) {
-                    return index + 1;
-                }
-                index++;
-            }
-            return -1;
-        } finally {
-            queueLock.unlock();
+        NamedQueue queue = playerQueues.get(playerId);
+        return queue != null ? queue.positionOf(playerId) : -1;
+    }
+
+    /**
+     * Name of the queue the player is waiting in, or null if they are not queued
+     */
+    public String getPlayerQueueName(UUID playerId) {
+        NamedQueue queue = playerQueues.get(playerId);
+        return queue != null ? queue.getName() : null;
+    }
+
+    /**
+     * Priority tier the player is queued in, or null if they are not queued
+     */
+    public String getPlayerTier(UUID playerId) {
+        NamedQueue queue = playerQueues.get(playerId);
+        return queue != null ? queue.tierOf(playerId) : null;
+    }
+
+    public List<String> getQueueNames() {
+        List<String> names = new ArrayList<>(queues.keySet());
+        Collections.sort(names);
+        return names;
+    }
+
+    /**
+     * Whether the queue exists, creating it for queue servers added since startup
+     */
+    public boolean hasQueue(String queueName) {
+        if (queues.containsKey(queueName)) {
+            return true;
         }
+        if (isQueueServer(queueName) && server.getServer(queueName).isPresent()) {
+            queueFor(queueName);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether the named queue drains into the given backend
+     */
+    public boolean isTargetOf(String queueName, String serverName) {
+        NamedQueue queue = queues.get(queueName);
+        return queue != null && !isQueueServer(serverName) && queue.accepts(serverName);
+    }
+
+    /**
+     * Every player in the named queue in effective (weighted-fair) order, from the last
+     * published view: lock-free and at most one repaint interval behind the live queue
+     */
+    public List<UUID> getQueueOrder(String queueName) {
+        NamedQueue queue = queues.get(queueName);
+        return queue != null ? queue.getView().order() : List.of();
+    }
+
+    public Map<String, Integer> getTierCounts() {
+        return getTierCounts(DEFAULT_QUEUE);
+    }
+
+    public Map<String, Integer> getTierCounts(String queueName) {
+        NamedQueue queue = queues.get(queueName);
+        return queue != null ? queue.getView().tierCounts() : Map.of();
+    }
+
+    public List<PriorityTier> getPriorityTiers() {
+        return priorityTiers;
     }
 
     public int getQueueCount() {
-        cleanupDisconnectedPlayers();
-        return queueSet.size();
+        return getQueueCount(DEFAULT_QUEUE);
+    }
+
+    public int getQueueCount(String queueName) {
+        NamedQueue queue = queues.get(queueName);
+        return queue != null ? queue.size() : 0;
+    }
+
+    public Map<String, Integer> getQueueCounts() {
+        Map<String, Integer> counts = new TreeMap<>();
+        queues.forEach((name, queue) -> counts.put(name, queue.size()));
+        return counts;
+    }
+
+    public int getTotalQueueCount() {
+        int total = 0;
+        for (NamedQueue queue : queues.values()) {
+            total += queue.size();
+        }
+        return total;
     }
 
     public List<String> getQueuedPlayerNames() {
-        cleanupDisconnectedPlayers();
-        queueLock.lock();
-        try {
-            return queueOrder.stream()
-                    .map(server::getPlayer)
-                    .filter(Optional::isPresent)
-                    .map(opt -> opt.get().getUsername())
-                    .collect(Collectors.toList());
-        } finally {
-            queueLock.unlock();
+        return getQueuedPlayerNames(DEFAULT_QUEUE, 0, Integer.MAX_VALUE);
+    }
+
+    public List<String> getQueuedPlayerNames(int offset, int limit) {
+        return getQueuedPlayerNames(DEFAULT_QUEUE, offset, limit);
+    }
+
+    /**
+     * One page of queued player names from the queue's last published view, at most one
+     * repaint interval behind the live queue. Players who are not online, e.g. restored
+     * players still within their grace period, have no name to list; the page is cut after
+     * dropping them, so {@code offset} and {@code limit} count online players only.
+     */
+    public List<String> getQueuedPlayerNames(String queueName, int offset, int limit) {
+        NamedQueue queue = queues.get(queueName);
+        if (queue == null) {
+            return List.of();
         }
+        return queue.getView().order().stream()
+                .map(server::getPlayer)
+                .flatMap(Optional::stream)
+                .skip(Math.max(0, offset))
+                .limit(Math.max(0, limit))
+                .map(Player::getUsername)
+                .collect(Collectors.toList());
     }
 
     public List<String> getQueuedPlayerUUIDs() {
-        cleanupDisconnectedPlayers();
-        queueLock.lock();
-        try {
-            return queueOrder.stream()
-                    .map(UUID::toString)
-                    .collect(Collectors.toList());
-        } finally {
-            queueLock.unlock();
+        return getQueuedPlayerUUIDs(DEFAULT_QUEUE, 0, Integer.MAX_VALUE);
+    }
+
+    public List<String> getQueuedPlayerUUIDs(int offset, int limit) {
+        return getQueuedPlayerUUIDs(DEFAULT_QUEUE, offset, limit);
+    }
+
+    public List<String> getQueuedPlayerUUIDs(String queueName, int offset, int limit) {
+        return page(queueName, offset, limit).stream()
+                .map(UUID::toString)
+                .collect(Collectors.toList());
+    }
+
+    private List<UUID> page(String queueName, int offset, int limit) {
+        NamedQueue queue = queues.get(queueName);
+        if (queue == null) {
+            return List.of();
         }
+        List<UUID> order = queue.getView().order();
+        int from = Math.min(Math.max(0, offset), order.size());
+        int to = (int) Math.min(order.size(), (long) from + Math.max(0, limit));
+        return order.subList(from, to);
     }
 
-    private void updateAllBossBars() {
-        List<UUID> snapshot;
-        queueLock.lock();
+    /**
+     * Marks the queue display dirty. Repaints are coalesced per queue so a burst of joins and
+     * leaves costs at most one pass over that queue every {@code BOSS_BAR_REPAINT_INTERVAL_MS}.
+     */
+    private void updateAllBossBars(NamedQueue queue) {
+        if (!queue.markDirty()) {
+            return;
+        }
+
         try {
-            snapshot = new ArrayList<>(queueOrder);
-        } finally {
-            queueLock.unlock();
+            displayExecutor.schedule(() -> repaintBossBars(queue),
+                    queue.repaintDelayMillis(BOSS_BAR_REPAINT_INTERVAL_MS), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            queue.cancelRepaint();
         }
+    }
+
+    private void repaintBossBars(NamedQueue queue) {
+        queue.beginRepaint();
+        List<UUID> snapshot = queue.publishView();
 
         int size = snapshot.size();
+        int updated = 0;
 
         for (int i = 0; i < size; i++) {
             UUID playerId = snapshot.get(i);
             int position = i + 1;
+            float progress = bossBarProgress(position, size);
 
-            server.getPlayer(playerId).ifPresent(player -> {
-                BossBar bossBar = playerBossBars.get(playerId);
-                if (bossBar != null) {
-                    bossBar.name(Component.text("Queue Position: " + position)
-                            .color(NamedTextColor.GOLD));
+            NamedQueue.DisplayedPosition displayed = queue.displayedPositions.get(playerId);
+            if (displayed != null && displayed.position() == position && displayed.progress() == progress) {
+                continue;
+            }
 
-                    float progress = Math.max(0.05f, 1.0f - ((float) (position - 1) / Math.max(1, size)));
-                    bossBar.progress(progress);
-                }
-            });
+            BossBar bossBar = playerBossBars.get(playerId);
+            if (bossBar == null || server.getPlayer(playerId).isEmpty()) {
+                continue;
+            }
+
+            if (displayed == null || displayed.position() != position) {
+                bossBar.name(positionComponent(position));
+            }
+            bossBar.progress(progress);
+            queue.displayedPositions.put(playerId, new NamedQueue.DisplayedPosition(position, progress));
+            updated++;
+        }
+
+        if (updated > 0) {
+            logger.debug("Repainted {} of {} boss bars in queue {}", updated, size, queue.getName());
+        }
+    }
+
+    private static float bossBarProgress(int position, int size) {
+        float progress = Math.max(0.05f, 1.0f - ((float) (position - 1) / Math.max(1, size)));
+        // Quantized so a change in queue size doesn't resend every bar for an invisible difference
+        return Math.round(progress * BOSS_BAR_PROGRESS_STEPS) / (float) BOSS_BAR_PROGRESS_STEPS;
+    }
+
+    private Component positionComponent(int position) {
+        if (positionComponents.size() > MAX_CACHED_POSITION_COMPONENTS) {
+            positionComponents.clear();
+        }
+        return positionComponents.computeIfAbsent(position,
+                p -> Component.text("Queue Position: " + p).color(NamedTextColor.GOLD));
+    }
+
+    public void shutdown() {
+        displayExecutor.shutdownNow();
+        if (journal != null) {
+            journal.close();
         }
     }
 
     private void cleanupDisconnectedPlayers() {
+        for (NamedQueue queue : queues.values()) {
+            reconcile(queue);
+        }
+    }
+
+    private void reconcile(NamedQueue queue) {
+        // Player lookups run against the published view, outside the queue lock
+        long now = System.currentTimeMillis();
         List<UUID> toRemove = new ArrayList<>();
-        queueLock.lock();
-        try {
-            for (UUID uuid : queueOrder) {
-                if (server.getPlayer(uuid).isEmpty()) {
-                    toRemove.add(uuid);
-                }
+        for (UUID uuid : queue.getView().order()) {
+            Long restoreDeadline = restoreDeadlines.get(uuid);
+            if (restoreDeadline != null && now < restoreDeadline) {
+                continue;
             }
-            if (!toRemove.isEmpty()) {
-                for (UUID u : toRemove) {
-                    queueSet.remove(u);
-                    queueOrder.remove(u);
-                    BossBar bb = playerBossBars.remove(u);
-                    logger.info("Removed offline player {} during cleanup", u);
-                }
+            if (server.getPlayer(uuid).isEmpty() && queue.remove(uuid)) {
+                toRemove.add(uuid);
             }
-        } finally {
-            queueLock.unlock();
+        }
+        if (toRemove.isEmpty()) {
+            return;
         }
 
-        if (!toRemove.isEmpty()) {
-            if (logsService != null) {
-                Map<String, Object> metadata = new HashMap<>();
-                metadata.put("players_removed", toRemove.size());
-                metadata.put("queue_size_after", queueSet.size());
-                metadata.put("cleanup_time", java.time.Instant.now().toString());
-                logsService.logQueueCleanup("Queue cleanup completed - removed offline players", metadata);
-            }
-            updateAllBossBars();
+        for (UUID u : toRemove) {
+            playerQueues.remove(u, queue);
+            journalLeave(u);
+            playerBossBars.remove(u);
+            logger.info("Removed offline player {} from queue {} during reconciliation", u, queue.getName());
+        }
+
+        if (logsService != null) {
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("queue_name", queue.getName());
+            metadata.put("players_removed", toRemove.size());
+            metadata.put("queue_size_after", queue.size());
+            metadata.put("cleanup_time", java.time.Instant.now().toString());
+            logsService.logQueueCleanup("Queue cleanup completed - removed offline players", metadata);
         }
+        updateAllBossBars(queue);
     }
-}
\ No newline at end of file
+}
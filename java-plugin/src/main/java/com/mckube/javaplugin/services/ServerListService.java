@@ -1,21 +1,35 @@
 package com.mckube.javaplugin.services;
 
+import com.mckube.javaplugin.utils.AsyncLimiter;
+import com.mckube.javaplugin.utils.LatencyHistogram;
 import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.api.proxy.server.RegisteredServer;
 import com.velocitypowered.api.proxy.server.ServerInfo;
 import com.velocitypowered.api.proxy.server.ServerPing;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 import org.slf4j.Logger;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 import java.time.Instant;
 import java.time.Duration;
 
@@ -27,16 +41,77 @@ public class ServerListService {
     private ServerManagementService serverManagementService;
     
     
-    private final Map<String, ServerStatus> statusCache = new ConcurrentHashMap<>();
+    private volatile ClusterSnapshot snapshot = ClusterSnapshot.empty();
+    private final Object snapshotLock = new Object();
     private final Map<String, Instant> lastPingTime = new ConcurrentHashMap<>();
-    private final ForkJoinPool pingExecutor = new ForkJoinPool(8); 
+    private static final int MAX_CONCURRENT_PINGS = 256;
+    private static final Duration LATENCY_WINDOW = Duration.ofMinutes(5);
+    private static final int LATENCY_WINDOW_SLOTS = 10;
+    private final Map<String, LatencyHistogram> latencyHistograms = new ConcurrentHashMap<>();
+    private final AsyncLimiter pingLimiter = new AsyncLimiter(MAX_CONCURRENT_PINGS);
     private static final Duration CACHE_TTL = Duration.ofSeconds(10); 
     private static final Duration PING_TIMEOUT = Duration.ofSeconds(3); 
-    private volatile Instant lastFullRefresh = Instant.EPOCH; 
+
+    private static final Duration PING_INTERVAL = Duration.ofSeconds(10);
+    private static final double PING_JITTER = 0.2;
+    private static final Duration STABLE_PING_INTERVAL = Duration.ofSeconds(30);
+    private static final Duration FLAPPING_PING_INTERVAL = Duration.ofSeconds(3);
+    private static final Duration FLAP_WINDOW = Duration.ofSeconds(60);
+    private static final int STABLE_AFTER_SUCCESSES = 6;
+    private static final int CIRCUIT_OPEN_AFTER_FAILURES = 3;
+    private static final Duration BACKOFF_BASE = Duration.ofSeconds(5);
+    private static final Duration BACKOFF_CAP = Duration.ofSeconds(120);
+    private final Map<String, PingSchedule> pingSchedules = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refreshScheduler;
+    private final Set<String> activeRefreshers = ConcurrentHashMap.newKeySet();
+    private volatile Map<String, TrackedServer> inventory = Map.of();
+    private volatile boolean initialSweepCompleted = false;
+
+    private final AtomicReference<CompletableFuture<List<ServerStatus>>> inFlightRefresh = new AtomicReference<>();
+    private final Map<String, CompletableFuture<ServerStatus>> inFlightPings = new ConcurrentHashMap<>();
+    private final AtomicLong refreshesExecuted = new AtomicLong();
+    private final AtomicLong refreshesCoalesced = new AtomicLong();
+    private final AtomicLong pingsExecuted = new AtomicLong();
+    private final AtomicLong pingsCoalesced = new AtomicLong();
+
+    public interface TransitionListener {
+        void onTransition(ServerTransition transition);
+    }
+
+    private static final int PLAYER_DELTA_THRESHOLD = 5;
+    private static final Duration PUSH_CHECK_INTERVAL = Duration.ofMillis(500);
+    // A LAN backend that was pushing answers well within this, so a hung one is caught quickly
+    private static final Duration PUSH_LOSS_PROBE_TIMEOUT = Duration.ofMillis(500);
+    private final Set<String> pushRefreshedServers = ConcurrentHashMap.newKeySet();
+    private static final Duration METADATA_REFRESH_INTERVAL = Duration.ofSeconds(60);
+    private MetricsService metricsService;
+    private final AtomicLong pushLivenessRefreshes = new AtomicLong();
+    private static final long LATENCY_EQUIVALENCE_MILLIS = 10;
+    private final List<TransitionListener> transitionListeners = new CopyOnWriteArrayList<>();
+    private final Map<String, Integer> reportedPlayers = new ConcurrentHashMap<>();
+    private final Map<String, String> lastPingErrors = new ConcurrentHashMap<>();
+
+    private final Map<String, RenderedMotd> motdCache = new ConcurrentHashMap<>();
+    private final AtomicLong motdCacheHits = new AtomicLong();
+
+    private record RenderedMotd(int componentHash, Component component, String text) {}
+
+    private record TimedPing(ServerPing ping, long latencyMillis) {}
+
+    /**
+     * A server being refreshed; {@code inMongo} is false for Velocity-registered servers
+     * without a MongoDB document
+     */
+    private record TrackedServer(String name, boolean enabled, Map<String, Object> serverData, boolean inMongo) {}
 
     public ServerListService(ProxyServer server, Logger logger) {
         this.server = server;
         this.logger = logger;
+        this.refreshScheduler = Executors.newScheduledThreadPool(2, r -> {
+            Thread thread = new Thread(r, "MC-Kube-Server-Refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
         logger.info("ServerListService initialized with performance caching (TTL: {}s)", CACHE_TTL.getSeconds());
     }
 
@@ -48,134 +123,541 @@ public class ServerListService {
         this.serverManagementService = serverManagementService;
     }
 
+    public void setMetricsService(MetricsService metricsService) {
+        this.metricsService = metricsService;
+    }
+
     public CompletableFuture<List<ServerStatus>> getAllServersWithStatus() {
-        
-        if (shouldUseCachedData()) {
-            List<ServerStatus> cachedResults = getCachedServerStatuses();
-            if (!cachedResults.isEmpty()) {
-                logger.debug("Serving {} servers from cache", cachedResults.size());
-                return CompletableFuture.completedFuture(cachedResults);
-            }
+        return getClusterSnapshot().thenApply(ClusterSnapshot::getServers);
+    }
+
+    public CompletableFuture<ClusterSnapshot> getClusterSnapshot() {
+        if (initialSweepCompleted) {
+            return CompletableFuture.completedFuture(snapshot);
         }
-        
-        return performFullServerRefresh();
+
+        // Cold start only: nothing has been pinged yet, so the first caller waits for one sweep
+        return performFullServerRefresh()
+                .thenApply(results -> initialSweepCompleted ? snapshot : snapshot.withAll(results));
     }
-    
-    private boolean shouldUseCachedData() {
-        return Duration.between(lastFullRefresh, Instant.now()).compareTo(CACHE_TTL) < 0;
+
+    /**
+     * Latest published snapshot, which may be empty before the first sweep completes
+     */
+    public ClusterSnapshot getSnapshot() {
+        return snapshot;
     }
-    
-    private List<ServerStatus> getCachedServerStatuses() {
-        return new ArrayList<>(statusCache.values());
+
+    public void addTransitionListener(TransitionListener listener) {
+        transitionListeners.add(listener);
     }
-    
-    private CompletableFuture<List<ServerStatus>> performFullServerRefresh() {
-        if (serverManagementService == null) {
-            logger.error("ServerManagementService not set, falling back to registered servers only");
-            return getAllRegisteredServersWithStatus();
+
+    public void removeTransitionListener(TransitionListener listener) {
+        transitionListeners.remove(listener);
+    }
+
+    private void publish(UnaryOperator<ClusterSnapshot> change) {
+        List<ServerTransition> transitions;
+        synchronized (snapshotLock) {
+            ClusterSnapshot previous = snapshot;
+            ClusterSnapshot next = change.apply(previous);
+            if (next == previous) {
+                return;
+            }
+            snapshot = next;
+            transitions = diffSnapshots(previous, next);
         }
 
-        try {
-            
-            List<Map<String, Object>> allServers = serverManagementService.getAllServers();
-            List<CompletableFuture<ServerStatus>> futures = new ArrayList<>();
-            Set<String> mongoServerNames = new java.util.HashSet<>();
+        // Listeners run outside the writer lock so a slow subscriber cannot stall publishing
+        for (ServerTransition transition : transitions) {
+            dispatchTransition(transition);
+        }
+    }
 
-            if (logsService != null) {
-                Map<String, Object> metadata = new HashMap<>();
-                metadata.put("total_servers", allServers.size());
-                metadata.put("check_time", java.time.Instant.now().toString());
-                metadata.put("server_names", allServers.stream()
-                        .map(s -> s.get("name").toString()).toList());
-                logsService.logServerStatusCheck("Server status check initiated for all servers", metadata);
+    private List<ServerTransition> diffSnapshots(ClusterSnapshot previous, ClusterSnapshot next) {
+        List<ServerTransition> transitions = new ArrayList<>();
+        String now = Instant.now().toString();
+
+        for (ServerStatus current : next.getServers()) {
+            String serverName = current.getName();
+            ServerStatus before = previous.get(serverName).orElse(null);
+            if (before == current) {
+                continue;
+            }
+            if (before == null) {
+                // First sighting is a baseline, not a transition
+                reportedPlayers.put(serverName, current.getCurrentPlayers());
+                continue;
             }
 
-            
-            for (Map<String, Object> serverData : allServers) {
-                String serverName = (String) serverData.get("name");
-                mongoServerNames.add(serverName);
-                Boolean enabled = (Boolean) serverData.get("enabled");
-                
-                
-                Optional<RegisteredServer> registeredServer = server.getServer(serverName);
-                if (registeredServer.isPresent()) {
-                    
-                    boolean isEnabled = enabled != null ? enabled : true;
-                    futures.add(getServerStatus(registeredServer.get(), isEnabled));
-                } else {
-                    
-                    boolean isEnabled = enabled != null ? enabled : true;
-                    futures.add(CompletableFuture.completedFuture(createOfflineServerStatus(serverData, isEnabled)));
-                }
+            boolean wasOnline = "online".equals(before.getStatus());
+            boolean isOnline = "online".equals(current.getStatus());
+            if (wasOnline != isOnline) {
+                transitions.add(transition(isOnline ? ServerTransition.Type.ONLINE : ServerTransition.Type.OFFLINE,
+                        before, current, before.getCurrentPlayers(), next.getVersion(), now));
+                reportedPlayers.put(serverName, current.getCurrentPlayers());
+            }
+
+            if (before.isEnabled() != current.isEnabled()) {
+                transitions.add(transition(current.isEnabled() ? ServerTransition.Type.ENABLED : ServerTransition.Type.DISABLED,
+                        before, current, before.getCurrentPlayers(), next.getVersion(), now));
             }
 
-            for (RegisteredServer registeredServer : server.getAllServers()) {
-                String serverName = registeredServer.getServerInfo().getName();
-                if (!mongoServerNames.contains(serverName)) {
-                    logger.info("Found Velocity-registered server '{}' not in MongoDB, including it as enabled", serverName);
-                    futures.add(getServerStatus(registeredServer, true));
+            if (isOnline && wasOnline) {
+                // Compared against the last reported count so slow drift still crosses the threshold
+                int reported = reportedPlayers.getOrDefault(serverName, before.getCurrentPlayers());
+                if (Math.abs(current.getCurrentPlayers() - reported) >= PLAYER_DELTA_THRESHOLD) {
+                    transitions.add(transition(ServerTransition.Type.PLAYER_COUNT,
+                            before, current, reported, next.getVersion(), now));
+                    reportedPlayers.put(serverName, current.getCurrentPlayers());
                 }
             }
+        }
+
+        if (next.getTotalServers() < previous.getTotalServers()) {
+            reportedPlayers.keySet().removeIf(name -> !next.contains(name));
+        }
+        return transitions;
+    }
+
+    private static ServerTransition transition(ServerTransition.Type type, ServerStatus before, ServerStatus current,
+                                               int previousPlayers, long version, String timestamp) {
+        return new ServerTransition(type, current.getName(), before.getStatus(), current.getStatus(),
+                current.isEnabled(), previousPlayers, current.getCurrentPlayers(), version, timestamp);
+    }
+
+    private void dispatchTransition(ServerTransition transition) {
+        logTransition(transition);
+        for (TransitionListener listener : transitionListeners) {
+            try {
+                listener.onTransition(transition);
+            } catch (Exception e) {
+                logger.warn("Server transition listener failed: {}", e.getMessage());
+            }
+        }
+    }
 
-            return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                    .thenApply(v -> {
-                        List<ServerStatus> results = futures.stream()
-                                .map(CompletableFuture::join)
-                                .toList();
-
-                        
-                        updateCache(results);
-                        lastFullRefresh = Instant.now();
-
-                        if (logsService != null) {
-                            long onlineServers = results.stream().filter(s -> "online".equals(s.getStatus())).count();
-                            long enabledServers = results.stream().filter(ServerStatus::isEnabled).count();
-
-                            Map<String, Object> metadata = new HashMap<>();
-                            metadata.put("total_servers", results.size());
-                            metadata.put("enabled_servers", enabledServers);
-                            metadata.put("disabled_servers", results.size() - enabledServers);
-                            metadata.put("online_servers", onlineServers);
-                            metadata.put("offline_servers", results.size() - onlineServers);
-                            metadata.put("check_completed_time", java.time.Instant.now().toString());
-                            logsService.logServerStatusCheck("Server status check completed", metadata);
-                        }
-
-                        return results;
+    private void logTransition(ServerTransition transition) {
+        switch (transition.type()) {
+            case ONLINE, OFFLINE -> {
+                logger.info("Server {} is now {} (was {})", transition.serverName(),
+                        transition.currentStatus(), transition.previousStatus());
+                if (logsService == null) {
+                    return;
+                }
+                Map<String, Object> metadata = new HashMap<>();
+                metadata.put("previous_status", transition.previousStatus());
+                metadata.put("current_players", transition.currentPlayers());
+                metadata.put("snapshot_version", transition.snapshotVersion());
+                if (transition.type() == ServerTransition.Type.ONLINE) {
+                    snapshot.get(transition.serverName()).ifPresent(status -> {
+                        metadata.put("latency_ms", status.getLatency());
+                        metadata.put("max_players", status.getMaxPlayers());
+                        metadata.put("version", status.getVersion());
                     });
+                    logsService.logServerOnline("Server came online", transition.serverName(), metadata);
+                } else {
+                    metadata.put("error_message", lastPingErrors.get(transition.serverName()));
+                    metadata.put("check_time", transition.timestamp());
+                    logsService.logServerOffline("Server went offline or became unreachable",
+                            transition.serverName(), metadata);
+                }
+            }
+            case ENABLED, DISABLED -> logger.info("Server {} was {}", transition.serverName(), transition.type().getValue());
+            case PLAYER_COUNT -> logger.debug("Server {} player count changed {} -> {}", transition.serverName(),
+                    transition.previousPlayers(), transition.currentPlayers());
+        }
+    }
+
+    /**
+     * Starts the background refresh: the server inventory is reloaded every {@code CACHE_TTL}
+     * and each backend is pinged on its own jittered cadence, so request handlers only ever
+     * read the latest snapshot.
+     */
+    public void startBackgroundRefresh() {
+        refreshScheduler.scheduleWithFixedDelay(this::refreshInventory,
+                0, CACHE_TTL.toMillis(), TimeUnit.MILLISECONDS);
+        logger.info("Background server refresh started (ping interval: {}s, jitter: ±{}%)",
+                PING_INTERVAL.getSeconds(), (int) (PING_JITTER * 100));
+    }
+
+    private void refreshInventory() {
+        try {
+            if (!initialSweepCompleted) {
+                performFullServerRefresh().whenComplete((results, throwable) -> scheduleRefreshers());
+                return;
+            }
+
+            inventory = loadInventory();
+            scheduleRefreshers();
 
+            Map<String, TrackedServer> current = inventory;
+            publish(snap -> snap.retainOnly(current::containsKey));
         } catch (Exception e) {
-            logger.error("Error getting servers from database, falling back to registered servers", e);
-            return getAllRegisteredServersWithStatus();
+            logger.warn("Error refreshing server inventory: {}", e.getMessage());
         }
     }
-    
-    private void updateCache(List<ServerStatus> results) {
-        
-        statusCache.clear();
-        
-        
-        for (ServerStatus status : results) {
-            statusCache.put(status.getName(), status);
+
+    private void scheduleRefreshers() {
+        for (String serverName : inventory.keySet()) {
+            if (activeRefreshers.add(serverName)) {
+                // Servers we have never seen are pinged right away, the rest are spread over one interval
+                long initialDelay = snapshot.contains(serverName)
+                        ? ThreadLocalRandom.current().nextLong(PING_INTERVAL.toMillis())
+                        : 0;
+                scheduleRefresh(serverName, initialDelay);
+            }
+        }
+    }
+
+    private void scheduleRefresh(String serverName, long delayMillis) {
+        try {
+            refreshScheduler.schedule(() -> refreshServer(serverName), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            activeRefreshers.remove(serverName);
+        }
+    }
+
+    private void refreshServer(String serverName) {
+        TrackedServer tracked = inventory.get(serverName);
+        if (tracked == null) {
+            activeRefreshers.remove(serverName);
+            pingSchedules.remove(serverName);
+            latencyHistograms.remove(serverName);
+            lastPingErrors.remove(serverName);
+            motdCache.remove(serverName);
+            pushRefreshedServers.remove(serverName);
+            logger.debug("Stopped background refresh for removed server: {}", serverName);
+            return;
+        }
+
+        if (refreshFromMetricsPush(tracked)) {
+            pushRefreshedServers.add(serverName);
+            scheduleRefresh(serverName, pushCheckDelayMillis(serverName));
+            return;
+        }
+        // Pushes just stopped: probe with a short timeout so a hung backend is reported
+        // within one push interval plus slack plus the probe, about 3s in total
+        boolean pushLost = pushRefreshedServers.remove(serverName) && !hasFreshMetricsPush(serverName);
+        Duration probeTimeout = pushLost ? PUSH_LOSS_PROBE_TIMEOUT : PING_TIMEOUT;
+
+        PingSchedule schedule = pingSchedules.computeIfAbsent(serverName, name -> new PingSchedule());
+        if (schedule.beginProbe()) {
+            publish(snap -> snap.get(serverName)
+                    .map(current -> snap.withStatus(current.withCircuitState(CircuitState.HALF_OPEN)))
+                    .orElse(snap));
+            logger.debug("Probing server {} after {} consecutive failures", serverName, schedule.getConsecutiveFailures());
         }
+
+        // Scheduled pings skip the recent-ping shortcut so flapping servers really are pinged
+        // at their own cadence and every outcome advances the circuit
+        fetchStatus(tracked, true, probeTimeout).whenComplete((status, throwable) -> {
+            if (status != null && inventory.containsKey(serverName)) {
+                publish(snap -> snap.withStatus(status));
+            }
+            // Backends that are pushing get the cheap check next instead of waiting a full ping interval
+            long delay = hasFreshMetricsPush(serverName)
+                    ? pushCheckDelayMillis(serverName)
+                    : jitteredDelay(schedule.getNextDelayMillis());
+            scheduleRefresh(serverName, delay);
+        });
     }
 
+    /**
+     * Uses a fresh Spigot metrics push as proof of life instead of pinging. Player counts come
+     * from the proxy itself; MOTD, version and max players are carried over from the last ping,
+     * which is repeated only every {@code METADATA_REFRESH_INTERVAL}. Returns false whenever a
+     * real ping is needed: no fresh push, no prior online status, or stale metadata.
+     */
+    private boolean refreshFromMetricsPush(TrackedServer tracked) {
+        String serverName = tracked.name();
+        if (!hasFreshMetricsPush(serverName)) {
+            return false;
+        }
+
+        Optional<RegisteredServer> registeredServer = server.getServer(serverName);
+        ServerStatus previous = snapshot.get(serverName).orElse(null);
+        if (registeredServer.isEmpty() || previous == null || !"online".equals(previous.getStatus())) {
+            return false;
+        }
+
+        Instant lastPing = lastPingTime.get(serverName);
+        if (lastPing == null || Duration.between(lastPing, Instant.now()).compareTo(METADATA_REFRESH_INTERVAL) > 0) {
+            return false;
+        }
+
+        int currentPlayers = registeredServer.get().getPlayersConnected().size();
+        ServerStatus next = previous.withLiveness(currentPlayers, tracked.enabled());
+        publish(snap -> snap.withStatus(next));
+        pushLivenessRefreshes.incrementAndGet();
+        return true;
+    }
+
+    private boolean hasFreshMetricsPush(String serverName) {
+        if (metricsService == null) {
+            return false;
+        }
+        MetricsService.MetricsLiveness liveness = metricsService.getLivenessByServerName(serverName);
+        return liveness != null && liveness.ageMillis() <= pushFreshnessMillis();
+    }
+
+    /**
+     * Next push check: at the latest when the last push goes stale, so a missed push is
+     * noticed without waiting out a fixed poll interval
+     */
+    private long pushCheckDelayMillis(String serverName) {
+        MetricsService.MetricsLiveness liveness = metricsService != null
+                ? metricsService.getLivenessByServerName(serverName)
+                : null;
+        if (liveness == null) {
+            return PUSH_CHECK_INTERVAL.toMillis();
+        }
+        long untilStale = pushFreshnessMillis() - liveness.ageMillis() + 1;
+        return Math.max(1, Math.min(PUSH_CHECK_INTERVAL.toMillis(), untilStale));
+    }
+
+    private long pushFreshnessMillis() {
+        // One push interval plus 25% slack for network and GC jitter
+        return metricsService.getPushInterval().toMillis() * 5 / 4;
+    }
+
+    /**
+     * Plain-text MOTD, re-rendered only when the backend's description component changes
+     */
+    private String renderMotd(String serverName, Component description) {
+        if (description == null) {
+            return "No MOTD";
+        }
+
+        int hash = description.hashCode();
+        RenderedMotd cached = motdCache.get(serverName);
+        if (cached != null && cached.componentHash() == hash && cached.component().equals(description)) {
+            motdCacheHits.incrementAndGet();
+            return cached.text();
+        }
+
+        String text = PlainTextComponentSerializer.plainText().serialize(description).trim();
+        motdCache.put(serverName, new RenderedMotd(hash, description, text));
+        return text;
+    }
+
+    private ServerStatus applyPingOutcome(ServerStatus status) {
+        PingSchedule schedule = pingSchedules.computeIfAbsent(status.getName(), name -> new PingSchedule());
+        CircuitState previous = schedule.getState();
+        CircuitState state = schedule.recordOutcome("online".equals(status.getStatus()));
+        if (previous != state) {
+            logger.debug("Server {} circuit {} -> {}", status.getName(), previous.getValue(), state.getValue());
+        }
+        return status.withCircuitState(state);
+    }
+
+    private static long jitteredDelay(long baseMillis) {
+        double factor = 1.0 - PING_JITTER + ThreadLocalRandom.current().nextDouble() * 2 * PING_JITTER;
+        return Math.max(1, (long) (baseMillis * factor));
+    }
+
+    private CompletableFuture<ServerStatus> fetchStatus(TrackedServer tracked) {
+        return fetchStatus(tracked, false);
+    }
+
+    private CompletableFuture<ServerStatus> fetchStatus(TrackedServer tracked, boolean bypassCache) {
+        return fetchStatus(tracked, bypassCache, PING_TIMEOUT);
+    }
+
+    private CompletableFuture<ServerStatus> fetchStatus(TrackedServer tracked, boolean bypassCache, Duration timeout) {
+        Optional<RegisteredServer> registeredServer = server.getServer(tracked.name());
+        if (registeredServer.isPresent()) {
+            return getServerStatus(registeredServer.get(), tracked.enabled(), bypassCache, timeout);
+        }
+        ServerStatus offline = createOfflineServerStatus(tracked.serverData(), tracked.enabled());
+        if (tracked.enabled()) {
+            return CompletableFuture.completedFuture(applyPingOutcome(offline));
+        }
+        // A server switched off in MongoDB is not failing, so it must not open its circuit
+        // or keep the backoff it built up before being disabled
+        pingSchedules.remove(tracked.name());
+        return CompletableFuture.completedFuture(offline);
+    }
+
+    /**
+     * Every server known to MongoDB, followed by Velocity-registered servers that are not in MongoDB
+     */
+    private Map<String, TrackedServer> loadInventory() {
+        Map<String, TrackedServer> next = new LinkedHashMap<>();
+
+        if (serverManagementService != null) {
+            for (Map<String, Object> serverData : serverManagementService.getAllServers()) {
+                String serverName = (String) serverData.get("name");
+                Boolean enabled = (Boolean) serverData.get("enabled");
+                next.put(serverName, new TrackedServer(serverName, enabled != null ? enabled : true, serverData, true));
+            }
+        }
+
+        for (RegisteredServer registeredServer : server.getAllServers()) {
+            String serverName = registeredServer.getServerInfo().getName();
+            if (!next.containsKey(serverName)) {
+                next.put(serverName, trackRegisteredServer(registeredServer));
+            }
+        }
+
+        return next;
+    }
+
+    private TrackedServer trackRegisteredServer(RegisteredServer registeredServer) {
+        String serverName = registeredServer.getServerInfo().getName();
+        Map<String, Object> serverData = new HashMap<>();
+        serverData.put("name", serverName);
+        serverData.put("ip", registeredServer.getServerInfo().getAddress().getHostString());
+        serverData.put("port", registeredServer.getServerInfo().getAddress().getPort());
+        return new TrackedServer(serverName, true, serverData, false);
+    }
     
-    private CompletableFuture<List<ServerStatus>> getAllRegisteredServersWithStatus() {
+    /**
+     * Single-flight wrapper: while a full refresh is running every caller shares its future
+     * instead of querying MongoDB and pinging all backends again.
+     */
+    private CompletableFuture<List<ServerStatus>> performFullServerRefresh() {
+        while (true) {
+            CompletableFuture<List<ServerStatus>> existing = inFlightRefresh.get();
+            if (existing != null) {
+                refreshesCoalesced.incrementAndGet();
+                return existing;
+            }
+
+            CompletableFuture<List<ServerStatus>> promise = new CompletableFuture<>();
+            if (inFlightRefresh.compareAndSet(null, promise)) {
+                refreshesExecuted.incrementAndGet();
+                runFullServerRefresh().whenComplete((results, throwable) -> {
+                    inFlightRefresh.compareAndSet(promise, null);
+                    if (throwable != null) {
+                        promise.completeExceptionally(throwable);
+                    } else {
+                        promise.complete(results);
+                    }
+                });
+                return promise;
+            }
+        }
+    }
+
+    /**
+     * Pings every server and publishes the results as the new inventory and snapshot. Without
+     * MongoDB the sweep still runs over the Velocity-registered servers, so the snapshot fills
+     * and background refreshers start either way.
+     */
+    private CompletableFuture<List<ServerStatus>> runFullServerRefresh() {
+        Map<String, TrackedServer> nextInventory;
+        boolean fromMongo = serverManagementService != null;
+        if (!fromMongo) {
+            logger.error("ServerManagementService not set, falling back to registered servers only");
+            nextInventory = registeredInventory();
+        } else {
+            try {
+                nextInventory = loadInventory();
+            } catch (Exception e) {
+                logger.error("Error getting servers from database, falling back to registered servers", e);
+                nextInventory = registeredInventory();
+                fromMongo = false;
+            }
+        }
+
+        try {
+            return sweep(nextInventory, fromMongo);
+        } catch (Exception e) {
+            logger.error("Error starting full server refresh", e);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletableFuture<List<ServerStatus>> sweep(Map<String, TrackedServer> nextInventory, boolean fromMongo) {
         List<CompletableFuture<ServerStatus>> futures = new ArrayList<>();
-        
-        for (RegisteredServer registeredServer : server.getAllServers()) {
-            CompletableFuture<ServerStatus> serverStatusFuture =
-                    getServerStatus(registeredServer, true);
-            futures.add(serverStatusFuture);
+
+        if (logsService != null) {
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("total_servers", nextInventory.size());
+            metadata.put("check_time", java.time.Instant.now().toString());
+            metadata.put("server_names", new ArrayList<>(nextInventory.keySet()));
+            logsService.logServerStatusCheck("Server status check initiated for all servers", metadata);
+        }
+
+        for (TrackedServer tracked : nextInventory.values()) {
+            if (fromMongo && !tracked.inMongo()) {
+                logger.info("Found Velocity-registered server '{}' not in MongoDB, including it as enabled", tracked.name());
+            }
+            futures.add(fetchStatus(tracked));
         }
 
         return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                .thenApply(v -> futures.stream()
-                        .map(CompletableFuture::join)
-                        .toList());
+                .thenApply(v -> {
+                    List<ServerStatus> results = futures.stream()
+                            .map(CompletableFuture::join)
+                            .toList();
+
+                    
+                    inventory = nextInventory;
+                    updateCache(results);
+                    initialSweepCompleted = true;
+
+                    if (logsService != null) {
+                        long onlineServers = results.stream().filter(s -> "online".equals(s.getStatus())).count();
+                        long enabledServers = results.stream().filter(ServerStatus::isEnabled).count();
+
+                        Map<String, Object> metadata = new HashMap<>();
+                        metadata.put("total_servers", results.size());
+                        metadata.put("enabled_servers", enabledServers);
+                        metadata.put("disabled_servers", results.size() - enabledServers);
+                        metadata.put("online_servers", onlineServers);
+                        metadata.put("offline_servers", results.size() - onlineServers);
+                        metadata.put("check_completed_time", java.time.Instant.now().toString());
+                        logsService.logServerStatusCheck("Server status check completed", metadata);
+                    }
+
+                    return results;
+                });
+    }
+
+    private Map<String, TrackedServer> registeredInventory() {
+        Map<String, TrackedServer> next = new LinkedHashMap<>();
+        for (RegisteredServer registeredServer : server.getAllServers()) {
+            next.put(registeredServer.getServerInfo().getName(), trackRegisteredServer(registeredServer));
+        }
+        return next;
+    }
+    
+    private void updateCache(List<ServerStatus> results) {
+        publish(snap -> snap.withAll(results));
+    }
+
+    /**
+     * Version of the current snapshot; it changes whenever any server status changes
+     */
+    public long getStatusVersion() {
+        return snapshot.getVersion();
+    }
+
+    /**
+     * Ping round-trip percentiles and timeout rate for a server over the sliding latency window
+     */
+    public Optional<LatencyHistogram.Summary> getLatencyStats(String serverName) {
+        LatencyHistogram histogram = latencyHistograms.get(serverName);
+        return histogram != null ? Optional.of(histogram.summarize()) : Optional.empty();
+    }
+
+    public Map<String, Object> getRefreshStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("full_refreshes_executed", refreshesExecuted.get());
+        stats.put("full_refreshes_coalesced", refreshesCoalesced.get());
+        stats.put("pings_executed", pingsExecuted.get());
+        stats.put("pings_coalesced", pingsCoalesced.get());
+        stats.put("push_liveness_refreshes", pushLivenessRefreshes.get());
+        stats.put("motd_cache_hits", motdCacheHits.get());
+        stats.put("pings_in_flight", pingLimiter.getRunning());
+        stats.put("pings_waiting", pingLimiter.getPending());
+        stats.put("max_concurrent_pings", pingLimiter.getMaxConcurrent());
+        return stats;
     }
 
+
     private ServerStatus createOfflineServerStatus(Map<String, Object> serverData, boolean enabled) {
         String name = (String) serverData.get("name");
         String ip = (String) serverData.get("ip");
@@ -215,67 +697,128 @@ public class ServerListService {
     }
 
     public CompletableFuture<Optional<ServerStatus>> getServerByName(String serverName) {
-        Optional<RegisteredServer> registeredServer = server.getServer(serverName);
+        return getServerByName(serverName, false);
+    }
+
+    /**
+     * Status of a single server from the current snapshot. With {@code fresh} the backend is
+     * pinged right away instead; servers the snapshot does not know yet are always probed.
+     */
+    public CompletableFuture<Optional<ServerStatus>> getServerByName(String serverName, boolean fresh) {
+        if (fresh) {
+            return probeServer(serverName);
+        }
+
+        return getClusterSnapshot().thenCompose(current -> {
+            Optional<ServerStatus> cached = current.get(serverName);
+            if (cached.isPresent()) {
+                return CompletableFuture.completedFuture(cached);
+            }
+            return probeServer(serverName);
+        });
+    }
+
+    private CompletableFuture<Optional<ServerStatus>> probeServer(String serverName) {
+        TrackedServer tracked = inventory.get(serverName);
+        if (tracked == null) {
+            tracked = server.getServer(serverName).map(this::trackRegisteredServer).orElse(null);
+        }
 
-        if (registeredServer.isEmpty()) {
+        if (tracked == null) {
             if (logsService != null) {
                 Map<String, Object> metadata = new HashMap<>();
                 metadata.put("requested_server", serverName);
-                metadata.put("available_servers", server.getAllServers().stream()
-                        .map(s -> s.getServerInfo().getName()).toList());
+                metadata.put("available_servers", new ArrayList<>(inventory.keySet()));
                 logsService.logServerStatusCheck("Server status check failed - server not found", metadata);
             }
             return CompletableFuture.completedFuture(Optional.empty());
         }
 
-        return getServerStatus(registeredServer.get(), true)
-                .thenApply(Optional::of);
+        return fetchStatus(tracked, true).thenApply(status -> {
+            if (inventory.containsKey(serverName)) {
+                publish(snap -> snap.withStatus(status));
+            }
+            return Optional.of(status);
+        });
     }
 
     public CompletableFuture<List<ServerStatus>> getOnlineServersOnly() {
-        return getAllServersWithStatus()
-                .thenApply(servers -> servers.stream()
-                        .filter(s -> "online".equals(s.getStatus()))
-                        .toList());
+        return getClusterSnapshot().thenApply(ClusterSnapshot::getOnlineServerList);
     }
 
-    private CompletableFuture<ServerStatus> getServerStatus(RegisteredServer registeredServer, boolean enabled) {
-        ServerInfo serverInfo = registeredServer.getServerInfo();
-        String serverName = serverInfo.getName();
-        long startTime = System.currentTimeMillis();
+    private CompletableFuture<ServerStatus> getServerStatus(RegisteredServer registeredServer, boolean enabled,
+                                                            boolean bypassCache, Duration timeout) {
+        String serverName = registeredServer.getServerInfo().getName();
 
         
         Instant lastPing = lastPingTime.get(serverName);
-        if (lastPing != null && Duration.between(lastPing, Instant.now()).compareTo(Duration.ofSeconds(5)) < 0) {
-            ServerStatus cached = statusCache.get(serverName);
-            if (cached != null) {
+        if (!bypassCache && lastPing != null && Duration.between(lastPing, Instant.now()).compareTo(Duration.ofSeconds(5)) < 0) {
+            Optional<ServerStatus> cached = snapshot.get(serverName);
+            if (cached.isPresent()) {
                 logger.debug("Using cached status for server: {}", serverName);
-                return CompletableFuture.completedFuture(cached);
+                return CompletableFuture.completedFuture(cached.get().withEnabled(enabled));
             }
         }
 
+        CompletableFuture<ServerStatus> promise = new CompletableFuture<>();
+        CompletableFuture<ServerStatus> existing = inFlightPings.putIfAbsent(serverName, promise);
+        if (existing != null) {
+            pingsCoalesced.incrementAndGet();
+            // The ping result is shared, the enabled flag is the caller's own
+            return existing.thenApply(status -> status.withEnabled(enabled));
+        }
+
+        pingsExecuted.incrementAndGet();
+        pingServer(registeredServer, enabled, timeout).whenComplete((status, throwable) -> {
+            inFlightPings.remove(serverName, promise);
+            if (throwable != null) {
+                promise.completeExceptionally(throwable);
+            } else {
+                promise.complete(status);
+            }
+        });
+        return promise;
+    }
+
+    private CompletableFuture<ServerStatus> pingServer(RegisteredServer registeredServer, boolean enabled, Duration timeout) {
+        ServerInfo serverInfo = registeredServer.getServerInfo();
+        String serverName = serverInfo.getName();
         int currentPlayers = registeredServer.getPlayersConnected().size();
 
         
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return registeredServer.ping()
-                        .orTimeout(PING_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
-                        .get(PING_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
-            } catch (Exception e) {
-                logger.debug("Server {} ping failed or timed out: {}", serverName, e.getMessage());
-                throw new RuntimeException("Ping failed", e);
-            }
-        }, pingExecutor)
-                .thenApply(ping -> {
-                    long latency = System.currentTimeMillis() - startTime;
+        LatencyHistogram histogram = latencyHistograms.computeIfAbsent(serverName,
+                name -> new LatencyHistogram(LATENCY_WINDOW.toMillis(), LATENCY_WINDOW_SLOTS));
+
+        return pingLimiter.submit(() -> {
+                    // Timed around the network call only, so limiter queueing is not counted
+                    long pingStart = System.nanoTime();
+                    return registeredServer.ping()
+                            .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                            .handle((ping, throwable) -> {
+                                long elapsedNanos = System.nanoTime() - pingStart;
+                                if (throwable == null) {
+                                    histogram.recordNanos(elapsedNanos);
+                                    return new TimedPing(ping, TimeUnit.NANOSECONDS.toMillis(elapsedNanos + 999_999));
+                                }
+                                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                                        ? throwable.getCause() : throwable;
+                                if (cause instanceof TimeoutException) {
+                                    histogram.recordTimeout();
+                                } else {
+                                    histogram.recordFailure();
+                                }
+                                throw throwable instanceof CompletionException ce ? ce : new CompletionException(throwable);
+                            });
+                })
+                .thenApply(timedPing -> {
+                    ServerPing ping = timedPing.ping();
+                    long latency = timedPing.latencyMillis();
                     lastPingTime.put(serverName, Instant.now()); 
 
                     String version = ping.getVersion() != null ?
                             ping.getVersion().getName() : "Unknown";
 
-                    String motd = ping.getDescriptionComponent() != null ?
-                            ping.getDescriptionComponent().toString() : "No MOTD";
+                    String motd = renderMotd(serverName, ping.getDescriptionComponent());
 
                     int maxPlayers = ping.getPlayers()
                             .map(ServerPing.Players::getMax)
@@ -306,34 +849,14 @@ public class ServerListService {
                                 metadata);
                     }
 
-                    
-                    if (logsService != null) {
-                        Map<String, Object> metadata = new HashMap<>();
-                        metadata.put("latency_ms", latency);
-                        metadata.put("current_players", currentPlayers);
-                        metadata.put("max_players", maxPlayers);
-                        metadata.put("version", version);
-                        logsService.logServerOnline("Server is online and responding",
-                                serverInfo.getName(),
-                                metadata);
-                    }
-
+                    lastPingErrors.remove(serverName);
                     return status;
                 })
                 .exceptionally(throwable -> {
                     logger.debug("Server {} is offline or unreachable: {}",
                             serverInfo.getName(), throwable.getMessage());
 
-                    
-                    if (logsService != null) {
-                        Map<String, Object> metadata = new HashMap<>();
-                        metadata.put("error_message", throwable.getMessage());
-                        metadata.put("server_address", serverInfo.getAddress().toString());
-                        metadata.put("check_time", java.time.Instant.now().toString());
-                        logsService.logServerOffline("Server went offline or became unreachable",
-                                serverInfo.getName(),
-                                metadata);
-                    }
+                    lastPingErrors.put(serverName, String.valueOf(throwable.getMessage()));
 
                     return new ServerStatus(
                             serverInfo.getName(),
@@ -347,9 +870,92 @@ public class ServerListService {
                             "Server offline",
                             enabled
                     );
-                });
+                })
+                .thenApply(this::applyPingOutcome);
     }
     
+    /**
+     * Circuit state of a backend's ping schedule: {@code CLOSED} is pinged normally,
+     * {@code OPEN} is considered down and only re-probed on backoff, {@code HALF_OPEN}
+     * means a recovery probe is in flight.
+     */
+    public enum CircuitState {
+        CLOSED,
+        OPEN,
+        HALF_OPEN;
+
+        public String getValue() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * Per-server ping cadence. Stable servers are pinged less often, servers that changed
+     * state recently more often, and servers that keep failing back off exponentially.
+     */
+    private static final class PingSchedule {
+        private int consecutiveSuccesses;
+        private int consecutiveFailures;
+        private Boolean lastOnline;
+        private long lastFlapNanos = Long.MIN_VALUE;
+        private CircuitState state = CircuitState.CLOSED;
+        private long nextDelayMillis = PING_INTERVAL.toMillis();
+
+        synchronized CircuitState recordOutcome(boolean online) {
+            long now = System.nanoTime();
+            if (lastOnline != null && lastOnline != online) {
+                lastFlapNanos = now;
+            }
+            lastOnline = online;
+            boolean recentlyFlapped = lastFlapNanos != Long.MIN_VALUE
+                    && now - lastFlapNanos < FLAP_WINDOW.toNanos();
+
+            if (online) {
+                consecutiveFailures = 0;
+                consecutiveSuccesses++;
+                state = CircuitState.CLOSED;
+                if (recentlyFlapped) {
+                    nextDelayMillis = FLAPPING_PING_INTERVAL.toMillis();
+                } else if (consecutiveSuccesses >= STABLE_AFTER_SUCCESSES) {
+                    nextDelayMillis = STABLE_PING_INTERVAL.toMillis();
+                } else {
+                    nextDelayMillis = PING_INTERVAL.toMillis();
+                }
+                return state;
+            }
+
+            consecutiveSuccesses = 0;
+            consecutiveFailures++;
+            if (consecutiveFailures < CIRCUIT_OPEN_AFTER_FAILURES) {
+                state = CircuitState.CLOSED;
+                nextDelayMillis = recentlyFlapped ? FLAPPING_PING_INTERVAL.toMillis() : PING_INTERVAL.toMillis();
+            } else {
+                state = CircuitState.OPEN;
+                int exponent = Math.min(consecutiveFailures - CIRCUIT_OPEN_AFTER_FAILURES, 16);
+                nextDelayMillis = Math.min(BACKOFF_CAP.toMillis(), BACKOFF_BASE.toMillis() << exponent);
+            }
+            return state;
+        }
+
+        synchronized boolean beginProbe() {
+            if (state != CircuitState.OPEN) return false;
+            state = CircuitState.HALF_OPEN;
+            return true;
+        }
+
+        synchronized CircuitState getState() {
+            return state;
+        }
+
+        synchronized long getNextDelayMillis() {
+            return nextDelayMillis;
+        }
+
+        synchronized int getConsecutiveFailures() {
+            return consecutiveFailures;
+        }
+    }
+
     public static class BasicServerInfo {
         private final String name;
         private final String host;
@@ -384,10 +990,19 @@ public class ServerListService {
         private final String motd;
         private final String timestamp;
         private final boolean enabled; 
+        private final CircuitState circuitState;
 
         public ServerStatus(String name, String host, int port, String status,
                             int currentPlayers, int maxPlayers, long latency,
                             String version, String motd, boolean enabled) {
+            this(name, host, port, status, currentPlayers, maxPlayers, latency, version, motd,
+                    java.time.Instant.now().toString(), enabled, CircuitState.CLOSED);
+        }
+
+        private ServerStatus(String name, String host, int port, String status,
+                             int currentPlayers, int maxPlayers, long latency,
+                             String version, String motd, String timestamp,
+                             boolean enabled, CircuitState circuitState) {
             this.name = name;
             this.host = host;
             this.port = port;
@@ -397,8 +1012,48 @@ public class ServerListService {
             this.latency = latency;
             this.version = version;
             this.motd = motd;
-            this.timestamp = java.time.Instant.now().toString();
+            this.timestamp = timestamp;
             this.enabled = enabled;
+            this.circuitState = circuitState;
+        }
+
+        /**
+         * True when the two statuses would look the same to a client. The timestamp is
+         * ignored and small latency jitter is tolerated, so steady pings don't churn the snapshot.
+         */
+        public boolean isEquivalentTo(ServerStatus other) {
+            if (other == this) return true;
+            if (other == null) return false;
+            long latencyDelta = Math.abs(latency - other.latency);
+            return name.equals(other.name)
+                    && port == other.port
+                    && enabled == other.enabled
+                    && currentPlayers == other.currentPlayers
+                    && maxPlayers == other.maxPlayers
+                    && circuitState == other.circuitState
+                    && isHealthy() == other.isHealthy()
+                    && java.util.Objects.equals(host, other.host)
+                    && java.util.Objects.equals(status, other.status)
+                    && java.util.Objects.equals(version, other.version)
+                    && java.util.Objects.equals(motd, other.motd)
+                    && latencyDelta < Math.max(LATENCY_EQUIVALENCE_MILLIS, Math.abs(other.latency) / 4);
+        }
+
+        public ServerStatus withLiveness(int currentPlayers, boolean enabled) {
+            return new ServerStatus(name, host, port, status, currentPlayers, maxPlayers, latency,
+                    version, motd, java.time.Instant.now().toString(), enabled, circuitState);
+        }
+
+        public ServerStatus withEnabled(boolean enabled) {
+            if (this.enabled == enabled) return this;
+            return new ServerStatus(name, host, port, status, currentPlayers, maxPlayers, latency,
+                    version, motd, timestamp, enabled, circuitState);
+        }
+
+        public ServerStatus withCircuitState(CircuitState circuitState) {
+            if (this.circuitState == circuitState) return this;
+            return new ServerStatus(name, host, port, status, currentPlayers, maxPlayers, latency,
+                    version, motd, timestamp, enabled, circuitState);
         }
         
         public String getName() { return name; }
@@ -412,6 +1067,7 @@ public class ServerListService {
         public String getMotd() { return motd; }
         public String getTimestamp() { return timestamp; }
         public boolean isEnabled() { return enabled; }
+        public CircuitState getCircuitState() { return circuitState; }
 
         public float getTickRate() {
             if (latency <= 0) return 0.0f;
@@ -438,23 +1094,19 @@ public class ServerListService {
     
     
     public void shutdown() {
-        if (pingExecutor != null && !pingExecutor.isShutdown()) {
-            pingExecutor.shutdown();
-            try {
-                if (!pingExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                    pingExecutor.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                pingExecutor.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
-        }
+        refreshScheduler.shutdownNow();
     }
     
     
     public void clearCache() {
-        statusCache.clear();
+        publish(ClusterSnapshot::cleared);
         lastPingTime.clear();
-        lastFullRefresh = Instant.EPOCH;
+        pingSchedules.clear();
+        latencyHistograms.clear();
+        lastPingErrors.clear();
+        motdCache.clear();
+        pushRefreshedServers.clear();
+        reportedPlayers.clear();
+        initialSweepCompleted = false;
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.mckube.javaplugin.services;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A meaningful change in a backend's status, published instead of every ping result
+ */
+public record ServerTransition(
+        Type type,
+        String serverName,
+        String previousStatus,
+        String currentStatus,
+        boolean enabled,
+        int previousPlayers,
+        int currentPlayers,
+        long snapshotVersion,
+        String timestamp
+) {
+
+    public enum Type {
+        ONLINE,
+        OFFLINE,
+        ENABLED,
+        DISABLED,
+        PLAYER_COUNT;
+
+        public String getValue() {
+            return name().toLowerCase();
+        }
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("type", type.getValue());
+        data.put("server", serverName);
+        data.put("previousStatus", previousStatus);
+        data.put("status", currentStatus);
+        data.put("enabled", enabled);
+        data.put("previousPlayers", previousPlayers);
+        data.put("currentPlayers", currentPlayers);
+        data.put("snapshotVersion", snapshotVersion);
+        data.put("timestamp", timestamp);
+        return data;
+    }
+}
@@ -0,0 +1,105 @@
+package com.mckube.javaplugin.utils;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Semaphore-style limiter for asynchronous work. At most {@code maxConcurrent} tasks are
+ * running at once; the rest wait in a FIFO queue and start as soon as a running task
+ * completes. No thread is ever parked while waiting for a permit.
+ *
+ * Waiters are started on the thread that released the permit. Tasks that complete
+ * synchronously would otherwise release from inside the previous start, so each thread
+ * drains its hand-offs in a loop instead of recursing.
+ */
+public class AsyncLimiter {
+
+    private final int maxConcurrent;
+    private final Queue<Runnable> pending = new ArrayDeque<>();
+    private int running;
+    // Hand-offs made while this thread is already draining, run by the outer loop
+    private final ThreadLocal<Queue<Runnable>> trampoline = new ThreadLocal<>();
+
+    public AsyncLimiter(int maxConcurrent) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("Concurrency limit must be positive");
+        }
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable start = () -> {
+            CompletableFuture<T> started;
+            try {
+                started = task.get();
+            } catch (Throwable t) {
+                started = CompletableFuture.failedFuture(t);
+            }
+            started.whenComplete((value, throwable) -> {
+                release();
+                if (throwable != null) {
+                    result.completeExceptionally(throwable);
+                } else {
+                    result.complete(value);
+                }
+            });
+        };
+
+        boolean startNow;
+        synchronized (this) {
+            startNow = running < maxConcurrent;
+            if (startNow) {
+                running++;
+            } else {
+                pending.add(start);
+            }
+        }
+
+        if (startNow) {
+            start.run();
+        }
+        return result;
+    }
+
+    private void release() {
+        Runnable next;
+        synchronized (this) {
+            next = pending.poll();
+            if (next == null) {
+                running--;
+                return;
+            }
+        }
+        // The permit is handed straight to the next waiter
+        Queue<Runnable> handOffs = trampoline.get();
+        if (handOffs != null) {
+            handOffs.add(next);
+            return;
+        }
+
+        handOffs = new ArrayDeque<>();
+        trampoline.set(handOffs);
+        try {
+            for (Runnable task = next; task != null; task = handOffs.poll()) {
+                task.run();
+            }
+        } finally {
+            trampoline.remove();
+        }
+    }
+
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    public synchronized int getPending() {
+        return pending.size();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+}
@@ -0,0 +1,155 @@
+package com.mckube.javaplugin.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sliding-window latency histogram with log-linear buckets (HDR style): values are kept
+ * in microseconds with 32 sub-buckets per power of two, giving roughly 3% relative error
+ * in a fixed, small footprint. The window is split into rotating slots so old samples
+ * age out without a background task.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 31;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final Window[] windows;
+    private final long slotNanos;
+
+    // nanoTime may be negative, so any real epoch can be too; only this value means unused
+    private static final long UNUSED_EPOCH = Long.MIN_VALUE;
+
+    private static final class Window {
+        final long[] counts = new long[BUCKET_COUNT];
+        long epoch = UNUSED_EPOCH;
+        long samples;
+        long timeouts;
+        long failures;
+        long maxMicros;
+
+        void reset(long newEpoch) {
+            java.util.Arrays.fill(counts, 0);
+            epoch = newEpoch;
+            samples = 0;
+            timeouts = 0;
+            failures = 0;
+            maxMicros = 0;
+        }
+    }
+
+    public record Summary(long samples, long timeouts, long failures,
+                          double p50Millis, double p90Millis, double p99Millis, double maxMillis,
+                          double timeoutRate, long windowSeconds) {}
+
+    public LatencyHistogram(long windowMillis, int slots) {
+        if (windowMillis <= 0 || slots <= 0) {
+            throw new IllegalArgumentException("Window and slot count must be positive");
+        }
+        this.windows = new Window[slots];
+        for (int i = 0; i < slots; i++) {
+            windows[i] = new Window();
+        }
+        this.slotNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis) / slots;
+    }
+
+    public synchronized void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        Window window = currentWindow();
+        window.counts[bucketIndex(micros)]++;
+        window.samples++;
+        window.maxMicros = Math.max(window.maxMicros, micros);
+    }
+
+    public synchronized void recordTimeout() {
+        currentWindow().timeouts++;
+    }
+
+    public synchronized void recordFailure() {
+        currentWindow().failures++;
+    }
+
+    public synchronized Summary summarize() {
+        long currentEpoch = currentEpoch();
+        long[] merged = new long[BUCKET_COUNT];
+        long samples = 0;
+        long timeouts = 0;
+        long failures = 0;
+        long maxMicros = 0;
+
+        for (Window window : windows) {
+            if (window.epoch == UNUSED_EPOCH || currentEpoch - window.epoch >= windows.length) {
+                continue;
+            }
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                merged[i] += window.counts[i];
+            }
+            samples += window.samples;
+            timeouts += window.timeouts;
+            failures += window.failures;
+            maxMicros = Math.max(maxMicros, window.maxMicros);
+        }
+
+        long attempts = samples + timeouts + failures;
+        return new Summary(
+                samples,
+                timeouts,
+                failures,
+                percentileMillis(merged, samples, 0.50, maxMicros),
+                percentileMillis(merged, samples, 0.90, maxMicros),
+                percentileMillis(merged, samples, 0.99, maxMicros),
+                maxMicros / 1000.0,
+                attempts > 0 ? (double) timeouts / attempts : 0.0,
+                TimeUnit.NANOSECONDS.toSeconds(slotNanos * windows.length)
+        );
+    }
+
+    private long currentEpoch() {
+        // Floor division keeps slots evenly sized across zero
+        return Math.floorDiv(System.nanoTime(), slotNanos);
+    }
+
+    private Window currentWindow() {
+        long epoch = currentEpoch();
+        Window window = windows[(int) Math.floorMod(epoch, (long) windows.length)];
+        if (window.epoch != epoch) {
+            window.reset(epoch);
+        }
+        return window;
+    }
+
+    private static double percentileMillis(long[] counts, long total, double quantile, long maxMicros) {
+        if (total == 0) {
+            return 0.0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperMicros(i), maxMicros) / 1000.0;
+            }
+        }
+        return maxMicros / 1000.0;
+    }
+
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKET_COUNT) {
+            return (int) micros;
+        }
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(micros), MAX_EXPONENT);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) Math.min((micros >> shift) - SUB_BUCKET_COUNT, SUB_BUCKET_COUNT - 1);
+        return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long bucketUpperMicros(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+        int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,242 @@
+package com.mckube.javaplugin.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FIFO queue with O(log n) rank lookup and O(log n) removal from the middle. Every entry
+ * gets a monotonically increasing ticket; a Fenwick tree over the tickets counts how many
+ * are still queued, so an entry's position is the prefix sum up to its ticket. Tickets are
+ * renumbered in one O(n) pass when they run off the end of the tree.
+ *
+ * Entries may carry a non-decreasing sort key, which lets callers merge several queues and
+ * count how many entries of this one sort ahead of a key in O(log n).
+ *
+ * Not thread-safe; callers guard it with their own lock.
+ */
+public class TicketQueue<T> {
+
+    private static final int MIN_CAPACITY = 64;
+
+    private final Map<T, Integer> tickets = new HashMap<>();
+    private Object[] items;
+    private double[] keys;
+    private int[] tree;
+    private int head;
+    private int nextTicket;
+    private double lastKey;
+
+    public TicketQueue() {
+        this(MIN_CAPACITY);
+    }
+
+    public TicketQueue(int initialCapacity) {
+        int capacity = Math.max(MIN_CAPACITY, initialCapacity);
+        this.items = new Object[capacity];
+        this.keys = new double[capacity];
+        this.tree = new int[capacity + 1];
+    }
+
+    /**
+     * Appends the item unless it is already queued
+     */
+    public boolean add(T item) {
+        return add(item, lastKey);
+    }
+
+    /**
+     * Appends the item with a sort key no smaller than any key added before it
+     */
+    public boolean add(T item, double key) {
+        if (key < lastKey) {
+            throw new IllegalArgumentException("Keys must be non-decreasing: " + key + " < " + lastKey);
+        }
+        if (tickets.containsKey(item)) {
+            return false;
+        }
+        if (nextTicket == items.length) {
+            compact();
+        }
+        int ticket = nextTicket++;
+        items[ticket] = item;
+        keys[ticket] = key;
+        lastKey = key;
+        tickets.put(item, ticket);
+        update(ticket, 1);
+        return true;
+    }
+
+    public boolean remove(T item) {
+        Integer ticket = tickets.remove(item);
+        if (ticket == null) {
+            return false;
+        }
+        items[ticket] = null;
+        update(ticket, -1);
+        return true;
+    }
+
+    public boolean contains(T item) {
+        return tickets.containsKey(item);
+    }
+
+    /**
+     * 1-based position of the item, or -1 if it is not queued
+     */
+    public int positionOf(T item) {
+        Integer ticket = tickets.get(item);
+        return ticket != null ? prefixSum(ticket) : -1;
+    }
+
+    /**
+     * Sort key the item was added with, or NaN if it is not queued
+     */
+    public double keyOf(T item) {
+        Integer ticket = tickets.get(item);
+        return ticket != null ? keys[ticket] : Double.NaN;
+    }
+
+    /**
+     * Number of queued entries whose key is below {@code key}, or at most {@code key} when
+     * {@code inclusive}. Keys of removed entries stay in place, so the tickets remain sorted
+     * and a binary search finds the cut-off.
+     */
+    public int countBelow(double key, boolean inclusive) {
+        int low = head;
+        int high = nextTicket;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            boolean ahead = inclusive ? keys[mid] <= key : keys[mid] < key;
+            if (ahead) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low > 0 ? prefixSum(low - 1) : 0;
+    }
+
+    /**
+     * Item at the given 1-based position, or null if out of range
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int position) {
+        if (position < 1 || position > tickets.size()) {
+            return null;
+        }
+        int index = 0;
+        int remaining = position;
+        for (int step = Integer.highestOneBit(items.length); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next <= items.length && tree[next] < remaining) {
+                index = next;
+                remaining -= tree[next];
+            }
+        }
+        return (T) items[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public T peekFirst() {
+        advanceHead();
+        return head < nextTicket ? (T) items[head] : null;
+    }
+
+    public T pollFirst() {
+        T first = peekFirst();
+        if (first != null) {
+            remove(first);
+        }
+        return first;
+    }
+
+    public int size() {
+        return tickets.size();
+    }
+
+    public boolean isEmpty() {
+        return tickets.isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<T> toList() {
+        List<T> result = new ArrayList<>(tickets.size());
+        for (int i = head; i < nextTicket; i++) {
+            if (items[i] != null) {
+                result.add((T) items[i]);
+            }
+        }
+        return result;
+    }
+
+    public void clear() {
+        tickets.clear();
+        items = new Object[MIN_CAPACITY];
+        keys = new double[MIN_CAPACITY];
+        tree = new int[MIN_CAPACITY + 1];
+        head = 0;
+        nextTicket = 0;
+        lastKey = 0;
+    }
+
+    private void advanceHead() {
+        while (head < nextTicket && items[head] == null) {
+            head++;
+        }
+    }
+
+    private void update(int ticket, int delta) {
+        for (int i = ticket + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private int prefixSum(int ticket) {
+        int sum = 0;
+        for (int i = ticket + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Renumbers live tickets from zero, doubling the capacity when the queue is more than
+     * half full so compaction stays amortized O(1) per add
+     */
+    private void compact() {
+        List<T> live = toList();
+        double[] liveKeys = new double[live.size()];
+        for (int i = 0; i < liveKeys.length; i++) {
+            liveKeys[i] = keys[tickets.get(live.get(i))];
+        }
+        int capacity = items.length;
+        if (live.size() * 2 >= capacity) {
+            capacity *= 2;
+        }
+
+        items = new Object[capacity];
+        keys = new double[capacity];
+        tree = new int[capacity + 1];
+        tickets.clear();
+        head = 0;
+        nextTicket = 0;
+
+        for (int i = 0; i < liveKeys.length; i++) {
+            T item = live.get(i);
+            int ticket = nextTicket++;
+            items[ticket] = item;
+            keys[ticket] = liveKeys[i];
+            tickets.put(item, ticket);
+            tree[ticket + 1] = 1;
+        }
+        // Linear-time Fenwick build from the raw counts
+        for (int i = 1; i < tree.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.mckube.javaplugin.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Hashed timing wheel. Scheduling and advancing are O(1) per entry; deadlines are
+ * rounded up to the tick resolution. The caller drives it by calling {@link #advance()}
+ * once per tick.
+ */
+public class TimerWheel<T> {
+
+    private final ArrayDeque<Slot<T>>[] wheel;
+    private final long tickMillis;
+    private long currentTick;
+    private int size;
+
+    private static final class Slot<T> {
+        final T item;
+        long remainingRounds;
+
+        Slot(T item, long remainingRounds) {
+            this.item = item;
+            this.remainingRounds = remainingRounds;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(int slots, long tickMillis) {
+        if (slots <= 0 || tickMillis <= 0) {
+            throw new IllegalArgumentException("Slots and tick duration must be positive");
+        }
+        this.wheel = new ArrayDeque[slots];
+        for (int i = 0; i < slots; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        this.tickMillis = tickMillis;
+    }
+
+    /**
+     * Schedules an item to be returned by {@link #advance()} after at least the given delay
+     */
+    public synchronized void schedule(T item, long delayMillis) {
+        long ticks = Math.max(1, (Math.max(0, delayMillis) + tickMillis - 1) / tickMillis);
+        int index = (int) ((currentTick + ticks) % wheel.length);
+        wheel[index].addLast(new Slot<>(item, (ticks - 1) / wheel.length));
+        size++;
+    }
+
+    /**
+     * Moves the wheel forward by one tick and returns every item that became due
+     */
+    public synchronized List<T> advance() {
+        currentTick++;
+        ArrayDeque<Slot<T>> bucket = wheel[(int) (currentTick % wheel.length)];
+        if (bucket.isEmpty()) {
+            return List.of();
+        }
+
+        List<T> due = new ArrayList<>();
+        Iterator<Slot<T>> it = bucket.iterator();
+        while (it.hasNext()) {
+            Slot<T> slot = it.next();
+            if (slot.remainingRounds <= 0) {
+                it.remove();
+                size--;
+                due.add(slot.item);
+            } else {
+                slot.remainingRounds--;
+            }
+        }
+        return due;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        for (ArrayDeque<Slot<T>> bucket : wheel) {
+            bucket.clear();
+        }
+        size = 0;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+}
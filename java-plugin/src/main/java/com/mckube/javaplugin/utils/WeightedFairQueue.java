@@ -0,0 +1,246 @@
+package com.mckube.javaplugin.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queue split into weighted tiers and served in weighted-fair order. Every entry gets a
+ * virtual finish tag when it joins, {@code max(virtual time, tier's last tag) + 1 / weight},
+ * and the effective order is by tag. A weight-4 tier therefore advances four entries for
+ * every one of a weight-1 tier, and no amount of high-tier traffic can starve a lower tier.
+ *
+ * Tags only grow within a tier, so each tier is a {@link TicketQueue} keyed by tag and an
+ * entry's position is the sum of one O(log n) count per tier. Ties go to the heavier tier.
+ *
+ * Not thread-safe; callers guard it with their own lock.
+ */
+public class WeightedFairQueue<T> {
+
+    private final List<Tier<T>> tiers = new ArrayList<>();
+    private final Map<String, Tier<T>> tiersByName = new LinkedHashMap<>();
+    private final Map<T, Tier<T>> tierOfItem = new HashMap<>();
+    private double virtualTime;
+
+    private static final class Tier<T> {
+        final String name;
+        final double weight;
+        final TicketQueue<T> queue = new TicketQueue<>();
+        double lastTag;
+
+        Tier(String name, double weight) {
+            this.name = name;
+            this.weight = weight;
+        }
+    }
+
+    public void addTier(String name, double weight) {
+        if (!(weight > 0)) {
+            throw new IllegalArgumentException("Tier weight must be positive: " + weight);
+        }
+        if (tiersByName.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate tier: " + name);
+        }
+        Tier<T> tier = new Tier<>(name, weight);
+        tiersByName.put(name, tier);
+        tiers.add(tier);
+        tiers.sort(Comparator.comparingDouble((Tier<T> t) -> t.weight).reversed());
+    }
+
+    public List<String> getTierNames() {
+        return List.copyOf(tiersByName.keySet());
+    }
+
+    /**
+     * Appends the item to the given tier unless it is already queued in any tier
+     */
+    public boolean add(T item, String tierName) {
+        Tier<T> tier = tiersByName.get(tierName);
+        if (tier == null) {
+            throw new IllegalArgumentException("Unknown tier: " + tierName);
+        }
+        if (tierOfItem.containsKey(item)) {
+            return false;
+        }
+
+        // Virtual time follows the front of the queue, so an idle tier rejoins at the head
+        // instead of cashing in the service it didn't use
+        double front = frontTag();
+        if (!Double.isNaN(front)) {
+            virtualTime = Math.max(virtualTime, front);
+        }
+        double tag = Math.max(virtualTime, tier.lastTag) + 1.0 / tier.weight;
+        tier.lastTag = tag;
+        tier.queue.add(item, tag);
+        tierOfItem.put(item, tier);
+        return true;
+    }
+
+    /**
+     * Re-adds an item with the tag it held before a restart. Items must be restored in
+     * ascending tag order and before anything new joins, so tags stay sorted per tier.
+     */
+    public boolean restore(T item, String tierName, double tag) {
+        Tier<T> tier = tiersByName.get(tierName);
+        if (tier == null) {
+            throw new IllegalArgumentException("Unknown tier: " + tierName);
+        }
+        if (tierOfItem.containsKey(item)) {
+            return false;
+        }
+        if (tag < tier.lastTag) {
+            throw new IllegalArgumentException("Restored tags must be ascending: " + tag + " < " + tier.lastTag);
+        }
+        tier.lastTag = tag;
+        tier.queue.add(item, tag);
+        tierOfItem.put(item, tier);
+        return true;
+    }
+
+    public boolean remove(T item) {
+        Tier<T> tier = tierOfItem.remove(item);
+        return tier != null && tier.queue.remove(item);
+    }
+
+    public boolean contains(T item) {
+        return tierOfItem.containsKey(item);
+    }
+
+    /**
+     * Name of the tier the item is queued in, or null if it is not queued
+     */
+    public String tierOf(T item) {
+        Tier<T> tier = tierOfItem.get(item);
+        return tier != null ? tier.name : null;
+    }
+
+    /**
+     * Virtual finish tag of the item, or NaN if it is not queued
+     */
+    public double tagOf(T item) {
+        Tier<T> tier = tierOfItem.get(item);
+        return tier != null ? tier.queue.keyOf(item) : Double.NaN;
+    }
+
+    /**
+     * 1-based effective position of the item, or -1 if it is not queued
+     */
+    public int positionOf(T item) {
+        Tier<T> own = tierOfItem.get(item);
+        if (own == null) {
+            return -1;
+        }
+        double tag = own.queue.keyOf(item);
+        int ahead = 0;
+        boolean heavier = true;
+        for (Tier<T> tier : tiers) {
+            if (tier == own) {
+                heavier = false;
+                ahead += tier.queue.countBelow(tag, false);
+            } else {
+                ahead += tier.queue.countBelow(tag, heavier);
+            }
+        }
+        return ahead + 1;
+    }
+
+    /**
+     * Up to {@code limit} items from the front, in effective order
+     */
+    public List<T> head(int limit) {
+        int count = Math.min(limit, size());
+        List<T> result = new ArrayList<>(count);
+        int[] cursors = new int[tiers.size()];
+        while (result.size() < count) {
+            int best = -1;
+            double bestTag = Double.POSITIVE_INFINITY;
+            T bestItem = null;
+            for (int i = 0; i < tiers.size(); i++) {
+                T candidate = tiers.get(i).queue.get(cursors[i] + 1);
+                if (candidate == null) {
+                    continue;
+                }
+                double tag = tiers.get(i).queue.keyOf(candidate);
+                if (tag < bestTag) {
+                    best = i;
+                    bestTag = tag;
+                    bestItem = candidate;
+                }
+            }
+            cursors[best]++;
+            result.add(bestItem);
+        }
+        return result;
+    }
+
+    /**
+     * Every queued item in effective order
+     */
+    public List<T> toList() {
+        List<List<T>> lists = new ArrayList<>(tiers.size());
+        for (Tier<T> tier : tiers) {
+            lists.add(tier.queue.toList());
+        }
+
+        List<T> result = new ArrayList<>(size());
+        int[] cursors = new int[tiers.size()];
+        while (result.size() < tierOfItem.size()) {
+            int best = -1;
+            double bestTag = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < lists.size(); i++) {
+                if (cursors[i] == lists.get(i).size()) {
+                    continue;
+                }
+                double tag = tiers.get(i).queue.keyOf(lists.get(i).get(cursors[i]));
+                if (tag < bestTag) {
+                    best = i;
+                    bestTag = tag;
+                }
+            }
+            result.add(lists.get(best).get(cursors[best]++));
+        }
+        return result;
+    }
+
+    public Map<String, Integer> getTierSizes() {
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (Tier<T> tier : tiersByName.values()) {
+            sizes.put(tier.name, tier.queue.size());
+        }
+        return sizes;
+    }
+
+    public int size() {
+        return tierOfItem.size();
+    }
+
+    public boolean isEmpty() {
+        return tierOfItem.isEmpty();
+    }
+
+    public void clear() {
+        for (Tier<T> tier : tiers) {
+            tier.queue.clear();
+            tier.lastTag = 0;
+        }
+        tierOfItem.clear();
+        virtualTime = 0;
+    }
+
+    private double frontTag() {
+        double front = Double.NaN;
+        for (Tier<T> tier : tiers) {
+            T first = tier.queue.peekFirst();
+            if (first != null) {
+                double tag = tier.queue.keyOf(first);
+                if (Double.isNaN(front) || tag < front) {
+                    front = tag;
+                }
+            }
+        }
+        return front;
+    }
+}